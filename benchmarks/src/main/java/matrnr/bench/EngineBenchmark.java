@@ -0,0 +1,61 @@
+package matrnr.bench;
+
+import matrnr.RunResults;
+import matrnr.TestEngine;
+import matrnr.execution.ExecutionStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EngineBenchmark {
+    @Param({"sequential", "forkJoin", "threadPerTest"})
+    public String strategy;
+
+    private TestEngine engine;
+
+    private static ExecutionStrategy strategy(String name) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        switch (name) {
+            case "sequential":
+                return ExecutionStrategy.sequential();
+            case "forkJoin":
+                return ExecutionStrategy.forkJoin(cores);
+            case "threadPerTest":
+                return ExecutionStrategy.threadPerTest(cores);
+            default:
+                throw new IllegalArgumentException("Unknown strategy '" + name + '\'');
+        }
+    }
+
+    @Setup
+    public void setup() {
+        TestEngine.Builder builder = TestEngine.builder()
+            .overviewOutput(Fixtures.nullStream())
+            .executionStrategy(strategy(strategy));
+        for (String name : Fixtures.SUITE_NAMES) {
+            builder.registerSuite(Fixtures.newSuite(name));
+        }
+        engine = builder.build();
+    }
+
+    @Benchmark
+    public RunResults test() {
+        return engine.test();
+    }
+}
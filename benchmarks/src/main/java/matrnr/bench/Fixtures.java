@@ -0,0 +1,98 @@
+package matrnr.bench;
+
+import matrnr.TestSuite;
+import matrnr.tests.LevelContractTest;
+import matrnr.tests.LevelNullParameterTest;
+import matrnr.tests.LevelNullReturnTest;
+import matrnr.tests.LevelStructureCheck;
+import matrnr.tests.MemberContractTest;
+import matrnr.tests.MemberNullParameterTest;
+import matrnr.tests.MemberNullReturnTest;
+import matrnr.tests.MemberShallowCopyTest;
+import matrnr.tests.MemberStructureCheck;
+import matrnr.tests.SportsClubContractTest;
+import matrnr.tests.SportsClubNullParameterTest;
+import matrnr.tests.SportsClubNullReturnTest;
+import matrnr.tests.SportsClubShallowCopyTest;
+import matrnr.tests.SportsClubStructureCheck;
+import matrnr.tests.SportsContractTest;
+import matrnr.tests.SportsNullParameterTest;
+import matrnr.tests.SportsNullReturnTest;
+import matrnr.tests.SportsStructureCheck;
+import matrnr.tests.TrainerContractTest;
+import matrnr.tests.TrainerNullParameterTest;
+import matrnr.tests.TrainerNullReturnTest;
+import matrnr.tests.TrainerShallowCopyTest;
+import matrnr.tests.TrainerStructureCheck;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+
+public class Fixtures {
+    public static final List<String> SUITE_NAMES = List.of(
+        "StructureChecks",
+        "NullParameterChecks",
+        "NullReturnChecks",
+        "ContractChecks",
+        "ShallowCopyChecks"
+    );
+
+    private Fixtures() {
+    }
+
+    public static PrintStream nullStream() {
+        return new PrintStream(OutputStream.nullOutputStream());
+    }
+
+    // same content as the matching field in Suites, but with freshly constructed tests on every call
+    public static TestSuite newSuite(String name) {
+        switch (name) {
+            case "StructureChecks":
+                return new TestSuite(
+                    name,
+                    new LevelStructureCheck(),
+                    new MemberStructureCheck(),
+                    new SportsClubStructureCheck(),
+                    new SportsStructureCheck(),
+                    new TrainerStructureCheck()
+                );
+            case "NullParameterChecks":
+                return new TestSuite(
+                    name,
+                    new LevelNullParameterTest(),
+                    new MemberNullParameterTest(),
+                    new SportsClubNullParameterTest(),
+                    new SportsNullParameterTest(),
+                    new TrainerNullParameterTest()
+                );
+            case "NullReturnChecks":
+                return new TestSuite(
+                    name,
+                    new LevelNullReturnTest(),
+                    new MemberNullReturnTest(),
+                    new SportsClubNullReturnTest(),
+                    new SportsNullReturnTest(),
+                    new TrainerNullReturnTest()
+                );
+            case "ContractChecks":
+                return new TestSuite(
+                    name,
+                    new LevelContractTest(),
+                    new MemberContractTest(),
+                    new SportsClubContractTest(),
+                    new SportsContractTest(),
+                    new TrainerContractTest()
+                );
+            case "ShallowCopyChecks":
+                return new TestSuite(
+                    name,
+                    new MemberShallowCopyTest(),
+                    new SportsClubShallowCopyTest(),
+                    new TrainerShallowCopyTest()
+                );
+            default:
+                throw new IllegalArgumentException("Unknown suite '" + name + '\'');
+        }
+    }
+}
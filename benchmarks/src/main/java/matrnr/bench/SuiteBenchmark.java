@@ -0,0 +1,47 @@
+package matrnr.bench;
+
+import matrnr.Test;
+import matrnr.TestResult;
+import matrnr.TestSuite;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SuiteBenchmark {
+    @Param({"StructureChecks", "NullParameterChecks", "NullReturnChecks", "ContractChecks", "ShallowCopyChecks"})
+    public String suite;
+
+    private TestSuite constructed;
+
+    @Setup
+    public void setup() {
+        constructed = Fixtures.newSuite(suite);
+    }
+
+    @Benchmark
+    public TestSuite construct() {
+        return Fixtures.newSuite(suite);
+    }
+
+    @Benchmark
+    public Map<Test, TestResult> test() {
+        return constructed.test();
+    }
+}
@@ -0,0 +1,47 @@
+package matrnr.bench;
+
+import matrnr.utils.TablePrinter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TablePrinterBenchmark {
+    @Param({"6", "100"})
+    public int rows;
+
+    private TablePrinter printer;
+
+    @Setup
+    public void setup() {
+        printer = new TablePrinter(Fixtures.nullStream());
+    }
+
+    // the shape of the overview table: headings, a header row and one row per suite
+    @Benchmark
+    public TablePrinter renderOverview() {
+        printer.printHeading(79, "PERFORMED TEST ROUTINE, RESULTS BELOW")
+            .printHeading(79, "DETAIL REPORT")
+            .printTableRow(34, "[Suite]", "[SUCCESS]", "[FAILURE]")
+            .printEmptyLine();
+        for (int i = 0; i < rows; i++) {
+            printer.printTableRow(34, "NullParameterChecks", Integer.toString(i), Integer.toString(rows - i));
+        }
+        return printer.printHeading(79, "STATS");
+    }
+}
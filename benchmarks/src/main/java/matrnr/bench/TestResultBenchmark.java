@@ -0,0 +1,59 @@
+package matrnr.bench;
+
+import matrnr.TestResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TestResultBenchmark {
+    private static final IllegalArgumentException EXPECTED = new IllegalArgumentException("expected");
+
+    // roughly the number of notes a contract test, a null check sweep and a large randomized run append
+    @Param({"10", "100", "1000"})
+    public int notes;
+
+    @Benchmark
+    public TestResult buildNotes() {
+        TestResult.Builder res = TestResult.builder().success();
+        for (int i = 0; i < notes; i++) {
+            res.expected(EXPECTED)
+                .appendNote("\nCalled 'registerSports' with null value but did not throw exception (may be a problem)");
+        }
+        return res.build();
+    }
+
+    @Benchmark
+    public TestResult buildStructuredNotes() {
+        TestResult.Builder res = TestResult.builder().success();
+        for (int i = 0; i < notes; i++) {
+            res.expected(EXPECTED)
+                .note("nullAccepted", "Called '{}' with null value but did not throw exception (may be a problem)", "registerSports");
+        }
+        return res.build();
+    }
+
+    @Benchmark
+    public String buildAndRender() {
+        return buildNotes().toString();
+    }
+
+    @Benchmark
+    public String buildAndRenderStructured() {
+        return buildStructuredNotes().toString();
+    }
+}
@@ -0,0 +1,27 @@
+package matrnr;
+
+public enum Level {
+    BEGINNER("Beginner"),
+    NORMAL("Normal"),
+    ADVANCED("Advanced"),
+    PROFESSIONAL("Professional");
+
+    private final String mappedName;
+
+    Level(String mappedName) {
+        this.mappedName = mappedName;
+    }
+
+    public String getMappedName() {
+        return mappedName;
+    }
+
+    public Level next() {
+        return this == PROFESSIONAL ? PROFESSIONAL : values()[ordinal() + 1];
+    }
+
+    @Override
+    public String toString() {
+        return mappedName;
+    }
+}
@@ -0,0 +1,81 @@
+package matrnr;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+public class Member implements Comparable<Member> {
+    private final String name;
+    private final Map<Sports, Level> sports;
+
+    public Member(String name) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("name must not be null or empty");
+        }
+        this.name = name;
+        this.sports = new HashMap<>();
+    }
+
+    public Member(String name, Map<Sports, Level> sports) {
+        this(name);
+        if (sports == null || sports.isEmpty()) {
+            throw new IllegalArgumentException("sports must not be null or empty");
+        }
+        for (Map.Entry<Sports, Level> entry : sports.entrySet()) {
+            if (entry.getKey() == null || entry.getValue() == null) {
+                throw new IllegalArgumentException("sports must not contain null values");
+            }
+            this.sports.put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Map<Sports, Level> getSports() {
+        return new HashMap<>(sports);
+    }
+
+    public Set<Sports> getBillableSports() {
+        return new HashSet<>(sports.keySet());
+    }
+
+    public Level learn(Sports s, Level l) {
+        if (s == null || l == null) {
+            throw new IllegalArgumentException("sports and level must not be null");
+        }
+        Level current = sports.get(s);
+        if (current == null) {
+            current = Level.BEGINNER;
+        } else if (current.compareTo(l) < 0) {
+            current = current.next();
+        }
+        sports.put(s, current);
+        return current;
+    }
+
+    @Override
+    public int compareTo(Member other) {
+        if (other == null) {
+            throw new IllegalArgumentException("cannot compare to null");
+        }
+        return name.compareTo(other.name);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Member && name.equals(((Member) other).name);
+    }
+
+    @Override
+    public int hashCode() {
+        return name.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "name: " + name + ", sports: " + sports;
+    }
+}
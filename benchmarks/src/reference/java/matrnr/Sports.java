@@ -0,0 +1,36 @@
+package matrnr;
+
+import java.math.BigDecimal;
+
+public enum Sports {
+    ARCHERY,
+    BASKETBALL,
+    CLIMBING,
+    DIVING,
+    FOOTBALL,
+    GOLF,
+    HANDBALL,
+    HOCKEY,
+    MOUNTAINBIKING,
+    PARKOUR;
+
+    public BigDecimal getFeeFactor() {
+        switch (this) {
+            case CLIMBING:
+                return new BigDecimal("1.2");
+            case DIVING:
+                return new BigDecimal("1.8");
+            case GOLF:
+                return new BigDecimal("2.1");
+            default:
+                return BigDecimal.ONE;
+        }
+    }
+
+    public BigDecimal getFee(BigDecimal feePerSports) {
+        if (feePerSports == null) {
+            throw new IllegalArgumentException("feePerSports must not be null");
+        }
+        return feePerSports.multiply(getFeeFactor());
+    }
+}
@@ -0,0 +1,95 @@
+package matrnr;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+public class SportsClub {
+    private final String name;
+    private final Set<Member> members;
+    private final Map<Sports, Set<Trainer>> offeredSports;
+    private final BigDecimal feePerSports;
+
+    public SportsClub(String name, BigDecimal feePerSports) {
+        if (name == null || name.isEmpty() || feePerSports == null) {
+            throw new IllegalArgumentException("name and feePerSports must be set");
+        }
+        this.name = name;
+        this.feePerSports = feePerSports;
+        this.members = new HashSet<>();
+        this.offeredSports = new HashMap<>();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public BigDecimal getFeePerSports() {
+        return feePerSports;
+    }
+
+    public Set<Member> getMembers() {
+        return new HashSet<>(members);
+    }
+
+    public Set<Sports> getSports() {
+        return new HashSet<>(offeredSports.keySet());
+    }
+
+    public BigDecimal calculateMembershipFee(Member m) {
+        if (m == null || !members.contains(m)) {
+            throw new IllegalArgumentException("not a member of this club");
+        }
+        BigDecimal fee = BigDecimal.ZERO;
+        for (Sports s : m.getBillableSports()) {
+            if (offeredSports.containsKey(s)) {
+                fee = fee.add(s.getFee(feePerSports));
+            }
+        }
+        return fee;
+    }
+
+    public boolean registerSports(Member m, Sports s, Level l) {
+        if (m == null || s == null || l == null || !members.contains(m)) {
+            throw new IllegalArgumentException("invalid registration");
+        }
+        boolean trainerAvailable = offeredSports.getOrDefault(s, Set.of())
+            .stream()
+            .anyMatch(t -> t.getAccreditations().get(s).compareTo(l) >= 0);
+        return trainerAvailable && m.learn(s, l) == l;
+    }
+
+    public boolean addMember(Member m) {
+        if (m == null) {
+            throw new IllegalArgumentException("member must not be null");
+        }
+        if (!members.add(m)) {
+            return false;
+        }
+        if (m instanceof Trainer) {
+            for (Sports s : ((Trainer) m).getAccreditations().keySet()) {
+                offeredSports.computeIfAbsent(s, k -> new HashSet<>()).add((Trainer) m);
+            }
+        }
+        return true;
+    }
+
+    public boolean removeMember(Member m) {
+        if (m == null) {
+            throw new IllegalArgumentException("member must not be null");
+        }
+        if (!members.remove(m)) {
+            return false;
+        }
+        offeredSports.values().forEach(trainers -> trainers.remove(m));
+        offeredSports.values().removeIf(Set::isEmpty);
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "SportsClub[name: " + name + ", feePerSports: " + feePerSports + ", offeredSports: " + offeredSports + ']';
+    }
+}
@@ -0,0 +1,30 @@
+package matrnr;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+public class Trainer extends Member {
+    private final Map<Sports, Level> accreditations;
+
+    public Trainer(String name, Map<Sports, Level> accreditations) {
+        super(name, accreditations);
+        this.accreditations = new HashMap<>(accreditations);
+    }
+
+    public Map<Sports, Level> getAccreditations() {
+        return new HashMap<>(accreditations);
+    }
+
+    @Override
+    public Set<Sports> getBillableSports() {
+        Set<Sports> billable = super.getBillableSports();
+        billable.removeAll(accreditations.keySet());
+        return billable;
+    }
+
+    @Override
+    public String toString() {
+        return super.toString() + ", accreditations: " + accreditations;
+    }
+}
@@ -0,0 +1,71 @@
+package matrnr.batch;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SubmissionCompilerTest {
+    private static final int SUBMISSIONS = 3;
+    private static final int ROUNDS = 5;
+
+    @TempDir
+    Path temp;
+
+    private Path submission(String name) throws Exception {
+        Path dir = Files.createDirectories(temp.resolve("submissions").resolve(name));
+        Files.writeString(dir.resolve("Level.java"), "package a12345678;\n\npublic enum Level {\n    BEGINNER, ADVANCED\n}\n");
+        return dir;
+    }
+
+    // identical submissions graded side by side compile the same sources into the same cache entry at the same time
+    @Test
+    void identicalSourcesCompiledConcurrentlyShareOneCacheEntry() throws Exception {
+        List<Path> submissions = new ArrayList<>();
+        for (int i = 0; i < SUBMISSIONS; i++) {
+            submissions.add(submission("s" + i));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(SUBMISSIONS);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                Path cache = temp.resolve("cache" + round);
+                SubmissionCompiler compiler = new SubmissionCompiler(cache);
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Path>> compiled = new ArrayList<>();
+                for (Path submission : submissions) {
+                    Callable<Path> compile = () -> {
+                        start.await();
+                        return compiler.compile(submission);
+                    };
+                    compiled.add(executor.submit(compile));
+                }
+                start.countDown();
+
+                Path first = compiled.get(0).get();
+                for (Future<Path> other : compiled) {
+                    assertEquals(first, other.get());
+                }
+                assertTrue(Files.isRegularFile(first.resolve("matrnr/Level.class")));
+                try (Stream<Path> entries = Files.list(cache)) {
+                    // no temporary directories are left behind
+                    assertEquals(List.of(first), entries.toList());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package matrnr;
+
+import matrnr.utils.ClassMetadata;
+import matrnr.utils.NullChecker;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class CoverageModel {
+    private static final NullChecker C = new NullChecker(new IllegalArgumentException("CoverageModel does not accept null values"));
+
+    // every public method and constructor of the covered classes gets a dense id, its index in this list
+    private final List<Executable> executables;
+    private final Map<Executable, Integer> ids;
+    private final Set<Class<?>> classes;
+    private final BitSet methods;
+    private final BitSet constructors;
+    private final BitSet covered;
+
+    public CoverageModel() {
+        executables = new ArrayList<>();
+        ids = new HashMap<>();
+        classes = new LinkedHashSet<>();
+        methods = new BitSet();
+        constructors = new BitSet();
+        covered = new BitSet();
+    }
+
+    private CoverageModel(CoverageModel other) {
+        executables = new ArrayList<>(other.executables);
+        ids = new HashMap<>(other.ids);
+        classes = new LinkedHashSet<>(other.classes);
+        methods = (BitSet) other.methods.clone();
+        constructors = (BitSet) other.constructors.clone();
+        covered = (BitSet) other.covered.clone();
+    }
+
+    public CoverageModel copy() {
+        return new CoverageModel(this);
+    }
+
+    private int assign(Executable exec, BitSet kind) {
+        Integer id = ids.get(exec);
+        if (id == null) {
+            id = executables.size();
+            executables.add(exec);
+            ids.put(exec, id);
+            kind.set(id);
+        }
+        return id;
+    }
+
+    private void index(Class<?> cls) {
+        if (classes.add(cls)) {
+            ClassMetadata meta = ClassMetadata.of(cls);
+            for (Method m : meta.publicMethods()) {
+                assign(m, methods);
+            }
+            for (Constructor<?> c : meta.publicConstructors()) {
+                assign(c, constructors);
+            }
+        }
+    }
+
+    public CoverageModel register(Test t) {
+        C.check(t);
+        for (Class<?> cls : t.getTestClasses()) {
+            index(cls);
+        }
+        for (Method m : t.coveredMethods()) {
+            covered.set(assign(m, methods));
+        }
+        for (Constructor<?> c : t.coveredConstructors()) {
+            covered.set(assign(c, constructors));
+        }
+        return this;
+    }
+
+    public CoverageModel registerAll(Iterable<Test> tests) {
+        for (Test t : C.check(tests)) {
+            register(t);
+        }
+        return this;
+    }
+
+    public Set<Class<?>> coveredClasses() {
+        return Collections.unmodifiableSet(classes);
+    }
+
+    public int size() {
+        return executables.size();
+    }
+
+    public int coveredCount() {
+        return covered.cardinality();
+    }
+
+    public int uncoveredCount() {
+        return size() - coveredCount();
+    }
+
+    public double coverage() {
+        return (double) coveredCount() / size();
+    }
+
+    public boolean isCovered(Executable exec) {
+        Integer id = ids.get(exec);
+        return id != null && covered.get(id);
+    }
+
+    public Set<Method> allMethods() {
+        return collect(methods, Method.class);
+    }
+
+    public Set<Constructor<?>> allConstructors() {
+        return collect(constructors, Constructor.class);
+    }
+
+    public Set<Method> coveredMethods() {
+        return collect(and(methods, covered), Method.class);
+    }
+
+    public Set<Constructor<?>> coveredConstructors() {
+        return collect(and(constructors, covered), Constructor.class);
+    }
+
+    public Set<Method> uncoveredMethods() {
+        return collect(andNot(methods, covered), Method.class);
+    }
+
+    public Set<Constructor<?>> uncoveredConstructors() {
+        return collect(andNot(constructors, covered), Constructor.class);
+    }
+
+    private static BitSet and(BitSet a, BitSet b) {
+        BitSet res = (BitSet) a.clone();
+        res.and(b);
+        return res;
+    }
+
+    private static BitSet andNot(BitSet a, BitSet b) {
+        BitSet res = (BitSet) a.clone();
+        res.andNot(b);
+        return res;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Set<T> collect(BitSet bits, Class<? super T> kind) {
+        Set<T> result = new LinkedHashSet<>();
+        for (int id = bits.nextSetBit(0); id >= 0; id = bits.nextSetBit(id + 1)) {
+            result.add((T) kind.cast(executables.get(id)));
+        }
+        return result;
+    }
+}
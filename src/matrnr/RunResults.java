@@ -0,0 +1,199 @@
+package matrnr;
+
+import matrnr.cache.ResultStore;
+import matrnr.utils.Pair;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// the results of one run: the suite results and isolated results that test() used to return as a pair, and indexes
+// that are filled while the tests finish. The indexes only reference tests, results are read from the store on access
+public class RunResults {
+    public static final class Entry {
+        private final ResultStore store;
+        private final TestSuite suite;
+        private final Test test;
+        private final TestResult.Outcome outcome;
+
+        private Entry(ResultStore store, TestSuite suite, Test test, TestResult.Outcome outcome) {
+            this.store = store;
+            this.suite = suite;
+            this.test = test;
+            this.outcome = outcome;
+        }
+
+        // null for isolated tests
+        public TestSuite getSuite() {
+            return suite;
+        }
+
+        public Test getTest() {
+            return test;
+        }
+
+        public TestResult.Outcome getOutcome() {
+            return outcome;
+        }
+
+        public TestResult getResult() {
+            return store.get(suite, test);
+        }
+
+        @Override
+        public String toString() {
+            return (suite == null ? "" : suite.getName() + '.') + test.getName() + " [" + outcome.name() + ']';
+        }
+    }
+
+    private final ResultStore store;
+    private final Map<TestSuite, Map<Test, TestResult>> suiteResults;
+    private final Map<Test, TestResult> isolatedResults;
+    private final List<Entry> entries = new ArrayList<>();
+    private final Map<String, List<Entry>> byName = new HashMap<>();
+    private final Map<TestSuite, List<Entry>> bySuite = new HashMap<>();
+    private final List<Entry> isolated = new ArrayList<>();
+    private final Map<TestResult.Outcome, List<Entry>> byOutcome = new EnumMap<>(TestResult.Outcome.class);
+    private final Map<Class<?>, Map<TestResult.Outcome, List<Entry>>> byClass = new HashMap<>();
+    private final Map<Executable, Map<TestResult.Outcome, List<Entry>>> byExecutable = new HashMap<>();
+    // "SportsClub.registerSports" and "matrnr.SportsClub.registerSports", constructors are named "<init>"
+    private final Map<String, Map<TestResult.Outcome, List<Entry>>> byMember = new HashMap<>();
+
+    RunResults(ResultStore store, Map<TestSuite, Map<Test, TestResult>> suiteResults) {
+        this.store = store;
+        this.suiteResults = Collections.unmodifiableMap(suiteResults);
+        isolatedResults = store.view(null);
+    }
+
+    // called by the engine for every result it stores, possibly from several threads
+    synchronized void index(TestSuite suite, Test test, TestResult.Outcome outcome) {
+        Entry entry = new Entry(store, suite, test, outcome);
+        entries.add(entry);
+        add(byName, test.getName(), entry);
+        if (suite == null) {
+            isolated.add(entry);
+        } else {
+            add(bySuite, suite, entry);
+        }
+        byOutcome.computeIfAbsent(outcome, o -> new ArrayList<>()).add(entry);
+        for (Class<?> c : test.getTestClasses()) {
+            addByOutcome(byClass, c, entry);
+        }
+        // overloads share their name, the entry is listed once per name
+        Set<String> members = new HashSet<>();
+        for (Executable exec : test.coveredMethods()) {
+            addByOutcome(byExecutable, exec, entry);
+            members(exec, members);
+        }
+        for (Executable exec : test.coveredConstructors()) {
+            addByOutcome(byExecutable, exec, entry);
+            members(exec, members);
+        }
+        for (String member : members) {
+            addByOutcome(byMember, member, entry);
+        }
+    }
+
+    private static void members(Executable exec, Set<String> members) {
+        String name = exec instanceof Constructor ? "<init>" : exec.getName();
+        Class<?> declaring = exec.getDeclaringClass();
+        members.add(declaring.getName() + '.' + name);
+        members.add(declaring.getSimpleName() + '.' + name);
+    }
+
+    private static <K> void add(Map<K, List<Entry>> index, K key, Entry entry) {
+        index.computeIfAbsent(key, k -> new ArrayList<>()).add(entry);
+    }
+
+    private static <K> void addByOutcome(Map<K, Map<TestResult.Outcome, List<Entry>>> index, K key, Entry entry) {
+        index.computeIfAbsent(key, k -> new EnumMap<>(TestResult.Outcome.class))
+            .computeIfAbsent(entry.outcome, o -> new ArrayList<>())
+            .add(entry);
+    }
+
+    private static List<Entry> lookup(Map<TestResult.Outcome, List<Entry>> byOutcome, TestResult.Outcome outcome) {
+        if (byOutcome == null) {
+            return List.of();
+        }
+        if (outcome != null) {
+            return Collections.unmodifiableList(byOutcome.getOrDefault(outcome, List.of()));
+        }
+        List<Entry> all = new ArrayList<>();
+        for (List<Entry> entries : byOutcome.values()) {
+            all.addAll(entries);
+        }
+        return Collections.unmodifiableList(all);
+    }
+
+    public Map<TestSuite, Map<Test, TestResult>> suiteResults() {
+        return suiteResults;
+    }
+
+    public Map<Test, TestResult> isolatedResults() {
+        return isolatedResults;
+    }
+
+    // the shape test() used to return, a new pair of the same read-only maps on every call
+    public Pair<Map<TestSuite, Map<Test, TestResult>>, Map<Test, TestResult>> asPair() {
+        return new Pair<>(suiteResults, isolatedResults);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // in the order the tests finished
+    public List<Entry> all() {
+        return Collections.unmodifiableList(entries);
+    }
+
+    // a test registered in several suites has an entry for each of them
+    public List<Entry> named(String testName) {
+        return Collections.unmodifiableList(byName.getOrDefault(testName, List.of()));
+    }
+
+    // null for the isolated tests
+    public List<Entry> inSuite(TestSuite suite) {
+        return Collections.unmodifiableList(suite == null ? isolated : bySuite.getOrDefault(suite, List.of()));
+    }
+
+    public List<Entry> with(TestResult.Outcome outcome) {
+        return Collections.unmodifiableList(byOutcome.getOrDefault(outcome, List.of()));
+    }
+
+    public List<Entry> failures() {
+        return with(TestResult.Outcome.FAILURE);
+    }
+
+    public List<Entry> testing(Class<?> cls) {
+        return lookup(byClass.get(cls), null);
+    }
+
+    public List<Entry> testing(Class<?> cls, TestResult.Outcome outcome) {
+        return lookup(byClass.get(cls), outcome);
+    }
+
+    public List<Entry> covering(Executable exec) {
+        return lookup(byExecutable.get(exec), null);
+    }
+
+    public List<Entry> covering(Executable exec, TestResult.Outcome outcome) {
+        return lookup(byExecutable.get(exec), outcome);
+    }
+
+    // by name, e.g. covering("SportsClub.registerSports", FAILURE); covers all overloads
+    public List<Entry> covering(String member) {
+        return lookup(byMember.get(member), null);
+    }
+
+    public List<Entry> covering(String member, TestResult.Outcome outcome) {
+        return lookup(byMember.get(member), outcome);
+    }
+}
@@ -1,14 +1,18 @@
 package matrnr;
 
+import matrnr.utils.ClassMetadata;
 import matrnr.utils.NullChecker;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
-import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 public abstract class Test {
@@ -21,6 +25,7 @@ public abstract class Test {
     protected final Set<Constructor<?>> testedConstructors;
     private final String name;
     private final String description;
+    private final Set<String> dependencies = new LinkedHashSet<>();
 
     public Test(
         Set<Class<?>> classesForTesting,
@@ -34,14 +39,8 @@ public abstract class Test {
         description = C.check(testDescription);
 
         C.checkAll(methodsForTesting);
-        allMethods = testClasses.stream()
-            .flatMap(c -> Arrays.stream(c.getDeclaredMethods()))
-            .filter(method -> Modifier.isPublic(method.getModifiers()))
-            .collect(Collectors.toSet());
-        allConstructors = testClasses.stream()
-            .flatMap(c -> Arrays.stream(c.getDeclaredConstructors()))
-            .filter(ctor -> Modifier.isPublic(ctor.getModifiers()))
-            .collect(Collectors.toSet());
+        allMethods = publicMembers(testClasses, ClassMetadata::publicMethods);
+        allConstructors = publicMembers(testClasses, ClassMetadata::publicConstructors);
 
         for (Method m : methodsForTesting) {
             if (!allMethods.contains(m)) {
@@ -58,6 +57,16 @@ public abstract class Test {
         testedConstructors = constructorsForTesting;
     }
 
+    private static <T> Set<T> publicMembers(Set<Class<?>> classes, Function<ClassMetadata, Set<T>> members) {
+        if (classes.size() == 1) {
+            // the common case, the shared set of the index can be used as is
+            return members.apply(ClassMetadata.of(classes.iterator().next()));
+        }
+        return classes.stream()
+            .flatMap(c -> members.apply(ClassMetadata.of(c)).stream())
+            .collect(Collectors.toSet());
+    }
+
     public Set<Class<?>> getTestClasses() {
         return testClasses;
     }
@@ -86,6 +95,18 @@ public abstract class Test {
         return description;
     }
 
+    // names of the tests that have to succeed before running this one makes sense
+    public Set<String> getDependencies() {
+        return Collections.unmodifiableSet(dependencies);
+    }
+
+    protected final void dependsOn(String testName) {
+        if (C.check(testName).equals(name)) {
+            throw new IllegalArgumentException("Test '" + name + "' cannot depend on itself");
+        }
+        dependencies.add(testName);
+    }
+
     public abstract TestResult test();
 
     public double testCoverage() {
@@ -122,31 +143,40 @@ public abstract class Test {
         return Objects.hash(name);
     }
 
-    @Override
-    public String toString() {
-        StringBuilder sb = new StringBuilder("[TEST] ");
-        sb.append(name)
+    public <A extends Appendable> A appendTo(A out) throws IOException {
+        out.append("[TEST] ")
+            .append(name)
             .append("\nfor classes [");
         for (Class<?> tc : testClasses) {
-            sb.append(' ')
+            out.append(' ')
                 .append(tc.getName());
         }
-        sb.append(" ]\ndescription: ")
+        out.append(" ]\ndescription: ")
             .append(description)
             .append("\ntests methods/constructors: {");
 
         for (Constructor<?> c : testedConstructors) {
-            sb.append("\n\t- ")
+            out.append("\n\t- ")
                 .append(c.toGenericString());
         }
         for (Method m : testedMethods) {
-            sb.append("\n\t- ")
+            out.append("\n\t- ")
                 .append(m.toGenericString());
         }
         if (!(testedMethods.isEmpty() && testedConstructors.isEmpty())) {
-            sb.append('\n');
+            out.append('\n');
+        }
+        out.append('}');
+        return out;
+    }
+
+    @Override
+    public String toString() {
+        try {
+            return appendTo(new StringBuilder()).toString();
+        } catch (IOException ex) {
+            // StringBuilder does not throw
+            throw new UncheckedIOException(ex);
         }
-        sb.append('}');
-        return sb.toString();
     }
 }
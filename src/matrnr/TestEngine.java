@@ -1,52 +1,105 @@
 package matrnr;
 
+import jdk.jfr.Recording;
+import matrnr.cache.ImpactAnalysis;
+import matrnr.cache.ResultCache;
+import matrnr.cache.ResultStore;
+import matrnr.cache.TestHistory;
+import matrnr.execution.ExceptionCapture;
+import matrnr.execution.ExecutionStrategy;
+import matrnr.execution.ResourceMeter;
+import matrnr.execution.TaskGraph;
+import matrnr.execution.TestedObjectRetention;
+import matrnr.execution.TestOrder;
+import matrnr.execution.Watchdog;
+import matrnr.events.FullOutputReporter;
+import matrnr.events.MetricsFileReporter;
+import matrnr.events.OverviewReporter;
+import matrnr.events.TestEvent;
+import matrnr.jfr.Recordings;
+import matrnr.jfr.SuiteExecutionEvent;
+import matrnr.jfr.TestExecutionEvent;
+import matrnr.metrics.MetricsEndpoint;
+import matrnr.metrics.MetricsRegistry;
 import matrnr.utils.NullChecker;
 import matrnr.utils.Pair;
-import matrnr.utils.TablePrinter;
 
-import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.io.UncheckedIOException;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
+import java.net.InetSocketAddress;
 import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.stream.Collectors;
-
-public class TestEngine {
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TestEngine implements Flow.Publisher<TestEvent> {
     private static final NullChecker C = new NullChecker(new IllegalArgumentException("TestResults do not accept null values in constructors"));
-    private static final int REPORT_WIDTH = 79;
-    private static final int REPORT_PADDING = 34;
-    private static final int STATS_PADDING = 25;
-    private static final String SYS_NEWLINE = System.lineSeparator();
-
-    private static String newline() {
-        return SYS_NEWLINE;
-    }
-
-    private static String newlines(int n) {
-        return String.valueOf(SYS_NEWLINE).repeat(n);
-    }
+    private static final Duration METRICS_WRITE_INTERVAL = Duration.ofSeconds(1);
+    private static final double[] DURATION_BUCKETS = {0.001, 0.005, 0.01, 0.05, 0.1, 0.5, 1, 5, 10, 30, 60};
 
     public static class Builder {
         private PrintStream overviewOutput;
         private Path fullOutput;
         private final Set<TestSuite> suites;
         private final Set<Test> isolatedTests;
+        private ExecutionStrategy executionStrategy;
+        private Duration testTimeout;
+        private Duration suiteTimeout;
+        private Duration fullOutputFlushInterval;
+        private ResultCache resultCache;
+        private ImpactAnalysis impactAnalysis;
+        private Path history;
+        private TestOrder testOrder;
+        private int maxFailures;
+        private boolean flightRecording;
+        private MetricsRegistry metrics;
+        private Path metricsFile;
+        private int metricsPort;
+        private boolean progress;
+        private ExceptionCapture exceptionCapture;
+        private TestedObjectRetention testedObjectRetention;
+        private Path spillResults;
 
         private Builder() {
             overviewOutput = System.out;
             fullOutput = null;
             suites = new HashSet<>();
             isolatedTests = new HashSet<>();
+            executionStrategy = ExecutionStrategy.sequential();
+            testTimeout = null;
+            suiteTimeout = null;
+            fullOutputFlushInterval = Duration.ofSeconds(1);
+            resultCache = null;
+            impactAnalysis = null;
+            history = null;
+            testOrder = TestOrder.registration();
+            maxFailures = Integer.MAX_VALUE;
+            flightRecording = false;
+            metrics = null;
+            metricsFile = null;
+            metricsPort = -1;
+            progress = false;
+            exceptionCapture = ExceptionCapture.full();
+            testedObjectRetention = TestedObjectRetention.live();
+            spillResults = null;
         }
 
         public Builder overviewOutput(PrintStream stream) {
@@ -59,33 +112,146 @@ public class TestEngine {
             return this;
         }
 
+        public Builder parallelism(int threads) {
+            executionStrategy = threads == 1 ? ExecutionStrategy.sequential() : ExecutionStrategy.forkJoin(threads);
+            return this;
+        }
+
+        public Builder virtualThreads(int maxConcurrent) {
+            executionStrategy = ExecutionStrategy.threadPerTest(maxConcurrent);
+            return this;
+        }
+
+        public Builder executionStrategy(ExecutionStrategy strategy) {
+            executionStrategy = strategy;
+            return this;
+        }
+
+        public Builder testTimeout(Duration timeout) {
+            testTimeout = timeout;
+            return this;
+        }
+
+        public Builder suiteTimeout(Duration timeout) {
+            suiteTimeout = timeout;
+            return this;
+        }
+
+        public Builder fullOutputFlushInterval(Duration interval) {
+            fullOutputFlushInterval = interval;
+            return this;
+        }
+
+        public Builder resultCache(Path directory) {
+            resultCache = directory == null ? null : new ResultCache(directory);
+            return this;
+        }
+
+        public Builder impactAnalysis(Path snapshot) {
+            impactAnalysis = snapshot == null ? null : new ImpactAnalysis(snapshot);
+            return this;
+        }
+
+        public Builder history(Path file) {
+            history = file;
+            return this;
+        }
+
+        public Builder testOrder(TestOrder order) {
+            testOrder = order;
+            return this;
+        }
+
+        public Builder failedFirst() {
+            return testOrder(TestOrder.failedFirstThenFastest());
+        }
+
+        public Builder maxFailures(int failures) {
+            if (failures < 1) {
+                throw new IllegalArgumentException("The number of failures to stop after must be at least 1, was " + failures);
+            }
+            maxFailures = failures;
+            return this;
+        }
+
+        // dumped next to the full output, which has to be set
+        public Builder flightRecording(boolean record) {
+            flightRecording = record;
+            return this;
+        }
+
+        // the engine adds its metrics to this registry instead of one of its own, e.g. one registry for a whole batch
+        public Builder metrics(MetricsRegistry registry) {
+            metrics = C.check(registry);
+            return this;
+        }
+
+        public Builder metricsFile(Path file) {
+            metricsFile = file;
+            return this;
+        }
+
+        // serves the metrics on the loopback interface only, 0 picks a free port
+        public Builder metricsPort(int port) {
+            if (port < 0 || port > 65535) {
+                throw new IllegalArgumentException("Not a valid port: " + port);
+            }
+            metricsPort = port;
+            return this;
+        }
+
+        // redraws a status line on the overview output, meant for a terminal
+        public Builder progress(boolean show) {
+            progress = show;
+            return this;
+        }
+
+        public Builder exceptionCapture(ExceptionCapture capture) {
+            exceptionCapture = capture;
+            return this;
+        }
+
+        public Builder testedObjectRetention(TestedObjectRetention retention) {
+            testedObjectRetention = retention;
+            return this;
+        }
+
+        // keeps the results of a run in the given file instead of the heap, the file is replaced by every run
+        public Builder spillResults(Path file) {
+            spillResults = file;
+            return this;
+        }
+
         public Builder registerSuite(TestSuite suite) {
-            suites.add(suite);
+            suites.add(C.check(suite));
             return this;
         }
 
         public Builder registerSuites(Collection<TestSuite> testSuites) {
-            suites.addAll(testSuites);
+            for (TestSuite ts : C.checkAll(testSuites)) {
+                registerSuite(ts);
+            }
             return this;
         }
 
         public Builder registerTest(Test test) {
-            isolatedTests.add(test);
+            isolatedTests.add(C.check(test));
             return this;
         }
 
         public Builder registerTests(Collection<Test> tests) {
-            isolatedTests.addAll(tests);
+            for (Test t : C.checkAll(tests)) {
+                registerTest(t);
+            }
             return this;
         }
 
         public Builder registerAllAsIsolatedTests(TestSuite suite) {
-            isolatedTests.addAll(suite.getTests());
-            return this;
+            return registerTests(C.check(suite).getTests());
         }
 
         public TestEngine build() {
-            return new TestEngine(overviewOutput, fullOutput, suites, isolatedTests);
+            return new TestEngine(overviewOutput, fullOutput, new HashSet<>(suites), new HashSet<>(isolatedTests), executionStrategy, testTimeout, suiteTimeout, fullOutputFlushInterval, resultCache, impactAnalysis, new TestHistory(history), testOrder, maxFailures, flightRecording, metrics == null ? new MetricsRegistry() : metrics, metricsFile, metricsPort, progress, exceptionCapture, testedObjectRetention, spillResults);
         }
     }
 
@@ -93,14 +259,107 @@ public class TestEngine {
     private final Path fullOutput;
     private final Set<TestSuite> suites;
     private final Set<Test> isolatedTests;
-    private final TablePrinter printer;
-
-    private TestEngine(PrintStream overviewOutput, Path fullOutput, Set<TestSuite> suites, Set<Test> isolatedTests) {
+    private final ExecutionStrategy executionStrategy;
+    private final long testTimeoutNanos;
+    private final long suiteTimeoutNanos;
+    private final Duration fullOutputFlushInterval;
+    private final ResultCache resultCache;
+    private final ImpactAnalysis impactAnalysis;
+    private final TestHistory history;
+    private final TestOrder testOrder;
+    private final int maxFailures;
+    private final Path flightRecording;
+    private final Path metricsFile;
+    private final int metricsPort;
+    private final boolean progress;
+    private final ExceptionCapture exceptionCapture;
+    private final TestedObjectRetention testedObjectRetention;
+    private final Path spillResults;
+    private volatile ResultStore results = ResultStore.inMemory();
+    private final MetricsRegistry metrics;
+    private final MetricsRegistry.Counter testsRun;
+    private final MetricsRegistry.Counter testsPassed;
+    private final MetricsRegistry.Counter testsFailed;
+    private final MetricsRegistry.Counter testsSkipped;
+    private final MetricsRegistry.Histogram testDuration;
+    private final MetricsRegistry.Gauge inFlightGauge;
+    private final MetricsRegistry.Gauge retainedGauge;
+    private final AtomicInteger retainedResults = new AtomicInteger();
+    private MetricsEndpoint metricsEndpoint;
+    private boolean metricsEndpointFailed;
+    private volatile CoverageModel coverage;
+    private final Map<TestSuite, Long> suiteDeadlines = new ConcurrentHashMap<>();
+    private final Map<TestSuite, SuiteProgress> startedSuites = new ConcurrentHashMap<>();
+    private final List<Flow.Subscriber<? super TestEvent>> pendingSubscribers = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final AtomicInteger failures = new AtomicInteger();
+
+    private TestEngine(
+        PrintStream overviewOutput,
+        Path fullOutput,
+        Set<TestSuite> suites,
+        Set<Test> isolatedTests,
+        ExecutionStrategy executionStrategy,
+        Duration testTimeout,
+        Duration suiteTimeout,
+        Duration fullOutputFlushInterval,
+        ResultCache resultCache,
+        ImpactAnalysis impactAnalysis,
+        TestHistory history,
+        TestOrder testOrder,
+        int maxFailures,
+        boolean flightRecording,
+        MetricsRegistry metrics,
+        Path metricsFile,
+        int metricsPort,
+        boolean progress,
+        ExceptionCapture exceptionCapture,
+        TestedObjectRetention testedObjectRetention,
+        Path spillResults
+    ) {
         this.overviewOutput = C.check(overviewOutput);
         this.fullOutput = fullOutput; // nullable
         this.suites = C.checkAll(suites);
         this.isolatedTests = C.checkAll(isolatedTests);
-        this.printer = new TablePrinter(overviewOutput);
+        this.executionStrategy = C.check(executionStrategy);
+        this.testTimeoutNanos = toTimeoutNanos(testTimeout);
+        this.suiteTimeoutNanos = toTimeoutNanos(suiteTimeout);
+        this.fullOutputFlushInterval = C.check(fullOutputFlushInterval);
+        this.resultCache = resultCache; // nullable
+        this.impactAnalysis = impactAnalysis; // nullable
+        this.history = C.check(history);
+        this.testOrder = C.check(testOrder);
+        this.maxFailures = maxFailures;
+        this.exceptionCapture = C.check(exceptionCapture);
+        this.testedObjectRetention = C.check(testedObjectRetention);
+        this.spillResults = spillResults; // nullable
+        if (flightRecording && fullOutput == null) {
+            throw new IllegalArgumentException("The flight recording is written next to the full output, which is not set");
+        }
+        this.flightRecording = flightRecording ? Recordings.nextTo(fullOutput) : null;
+        this.metrics = C.check(metrics);
+        this.metricsFile = metricsFile; // nullable
+        this.metricsPort = metricsPort;
+        this.progress = progress;
+
+        testsRun = metrics.counter("matrnr_tests_run_total", "Tests that finished with a success or a failure, including cached results");
+        testsPassed = metrics.counter("matrnr_tests_passed_total", "Tests that succeeded");
+        testsFailed = metrics.counter("matrnr_tests_failed_total", "Tests that failed");
+        testsSkipped = metrics.counter("matrnr_tests_skipped_total", "Tests that were skipped because a prerequisite did not succeed");
+        testDuration = metrics.histogram("matrnr_test_duration_seconds", "Time from the start of a test until its result was available", "suite", DURATION_BUCKETS);
+        inFlightGauge = metrics.gauge("matrnr_tests_in_flight", "Tests running right now");
+        retainedGauge = metrics.gauge("matrnr_results_retained", "Results held by the engines for their current or last run");
+    }
+
+    private static long toTimeoutNanos(Duration timeout) {
+        if (timeout == null) {
+            return Long.MAX_VALUE;
+        }
+        if (timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("Timeouts must be positive, was " + timeout);
+        }
+        return timeout.toNanos();
     }
 
     public static Builder builder() {
@@ -115,214 +374,559 @@ public class TestEngine {
         return isolatedTests;
     }
 
-    public Set<Class<?>> coveredClasses() {
-        Set<Class<?>> covered = new HashSet<>();
-        for (TestSuite ts : suites) {
-            covered.addAll(ts.coveredClasses());
-        }
-        for (Test t : isolatedTests) {
-            covered.addAll(t.getTestClasses());
+    public ExecutionStrategy getExecutionStrategy() {
+        return executionStrategy;
+    }
+
+    public ResultCache getResultCache() {
+        return resultCache;
+    }
+
+    public ImpactAnalysis getImpactAnalysis() {
+        return impactAnalysis;
+    }
+
+    public TestHistory getHistory() {
+        return history;
+    }
+
+    public Path getSpillResults() {
+        return spillResults;
+    }
+
+    // the results of the current or last run
+    public ResultStore results() {
+        return results;
+    }
+
+    public TestOrder getTestOrder() {
+        return testOrder;
+    }
+
+    public int getMaxFailures() {
+        return maxFailures;
+    }
+
+    // null if no flight recording is made
+    public Path getFlightRecording() {
+        return flightRecording;
+    }
+
+    public boolean showsProgress() {
+        return progress;
+    }
+
+    // counters survive across runs of the same engine, a shared registry also holds the counts of the other engines
+    public MetricsRegistry metrics() {
+        return metrics;
+    }
+
+    // null until the first run when a metrics port is set, or when the port could not be bound
+    public synchronized InetSocketAddress getMetricsAddress() {
+        return metricsEndpoint == null ? null : metricsEndpoint.getAddress();
+    }
+
+    public synchronized void stopMetricsEndpoint() {
+        if (metricsEndpoint != null) {
+            metricsEndpoint.stop();
+            metricsEndpoint = null;
         }
-        return covered;
     }
 
-    public Set<Method> allMethods() {
-        Set<Method> all = new HashSet<>();
-        for (TestSuite ts : suites) {
-            all.addAll(ts.allMethods());
+    // started by the first run and kept between runs until stopMetricsEndpoint(), an unusable port does not fail the run
+    private synchronized void startMetricsEndpoint() {
+        if (metricsPort < 0 || metricsEndpoint != null || metricsEndpointFailed) {
+            return;
         }
-        for (Test t : isolatedTests) {
-            all.addAll(t.allMethods());
+        try {
+            metricsEndpoint = MetricsEndpoint.start(metrics, metricsPort);
+        } catch (IOException ex) {
+            System.err.println("Could not serve metrics on port " + metricsPort + ", exception: " + ex);
+            metricsEndpointFailed = true;
         }
-        return all;
     }
 
-    public Set<Constructor<?>> allConstructors() {
-        Set<Constructor<?>> all = new HashSet<>();
-        for (TestSuite ts : suites) {
-            all.addAll(ts.allConstructors());
-        }
-        for (Test t : isolatedTests) {
-            all.addAll(t.allConstructors());
+    // whether results of earlier runs can show up instead of running a test
+    public boolean reusesResults() {
+        return resultCache != null || impactAnalysis != null;
+    }
+
+    public int peakInFlight() {
+        return peakInFlight.get();
+    }
+
+    // built on first use, registering a suite does not construct its tests
+    public CoverageModel coverage() {
+        CoverageModel result = coverage;
+        if (result == null) {
+            synchronized (this) {
+                if (coverage == null) {
+                    CoverageModel model = new CoverageModel();
+                    for (TestSuite ts : suites) {
+                        model.registerAll(ts.getTests());
+                    }
+                    coverage = model.registerAll(isolatedTests);
+                }
+                result = coverage;
+            }
         }
-        return all;
+        return result;
+    }
+
+    public Set<Class<?>> coveredClasses() {
+        return coverage().coveredClasses();
+    }
+
+    public Set<Method> allMethods() {
+        return coverage().allMethods();
+    }
+
+    public Set<Constructor<?>> allConstructors() {
+        return coverage().allConstructors();
     }
 
     public Set<Method> coveredMethods() {
-        Set<Method> covered = new HashSet<>();
-        for (TestSuite ts : suites) {
-            covered.addAll(ts.coveredMethods());
-        }
-        for (Test t : isolatedTests) {
-            covered.addAll(t.coveredMethods());
-        }
-        return covered;
+        return coverage().coveredMethods();
     }
 
     public Set<Constructor<?>> coveredConstructors() {
-        Set<Constructor<?>> covered = new HashSet<>();
-        for (TestSuite ts : suites) {
-            covered.addAll(ts.coveredConstructors());
-        }
-        for (Test t : isolatedTests) {
-            covered.addAll(t.coveredConstructors());
-        }
-        return covered;
+        return coverage().coveredConstructors();
     }
 
     public Set<Method> uncoveredMethods() {
-        Set<Method> all = allMethods();
-        all.removeAll(coveredMethods());
-        return all;
+        return coverage().uncoveredMethods();
     }
 
     public Set<Constructor<?>> uncoveredConstructors() {
-        Set<Constructor<?>> all = allConstructors();
-        all.removeAll(coveredConstructors());
-        return all;
+        return coverage().uncoveredConstructors();
     }
 
     public double totalCoverage() {
-        return ((double) coveredMethods().size() + coveredConstructors().size()) / (allMethods().size() + allConstructors().size());
+        return coverage().coverage();
+    }
+
+    // subscribers are attached to the next run of test() only
+    @Override
+    public void subscribe(Flow.Subscriber<? super TestEvent> subscriber) {
+        pendingSubscribers.add(C.check(subscriber));
     }
 
-    public Pair<Map<TestSuite, Map<Test, TestResult>>, Map<Test, TestResult>> test() {
+    // the maps read through the result store of the run, they stay valid after later runs
+    public RunResults test() {
+        retainedGauge.add(-retainedResults.getAndSet(0));
+        ResultStore store = spillResults == null ? ResultStore.inMemory() : ResultStore.mapped(spillResults);
+        results = store;
         Map<TestSuite, Map<Test, TestResult>> suiteResults = new HashMap<>();
-        Map<Test, TestResult> isolatedResults = new HashMap<>();
+        RunResults runResults;
+        SubmissionPublisher<TestEvent> events = new SubmissionPublisher<>();
+        List<CompletableFuture<Void>> delivered = attachSubscribers(events);
+        Recording recording = flightRecording == null ? null : startRecording();
+
+        try {
+            startMetricsEndpoint();
+            // every test of every suite becomes its own job, so a large suite does not serialize its tests on one worker;
+            // lazily declared suites construct their tests here
+            List<Pair<TestSuite, Test>> planned = new ArrayList<>();
+            for (TestSuite ts : suites) {
+                suiteResults.put(ts, store.view(ts));
+                for (Test t : ts.getTests()) {
+                    planned.add(new Pair<>(ts, t));
+                }
+            }
+            for (Test t : isolatedTests) {
+                planned.add(new Pair<>(null, t));
+            }
 
-        for (TestSuite ts : suites) {
-            suiteResults.put(ts, ts.test());
+            loadHistory();
+            if (impactAnalysis != null) {
+                loadSnapshot();
+            }
+
+            Comparator<Test> order = testOrder.comparator(history);
+            planned.sort((a, b) -> order.compare(a.second(), b.second()));
+            runResults = new RunResults(store, suiteResults);
+            TaskGraph graph = plan(planned, store, runResults, events);
+
+            events.submit(TestEvent.runStarted(graph.size()));
+            execute(graph);
+            saveHistory();
+            if (impactAnalysis != null) {
+                saveSnapshot();
+            }
+            events.submit(TestEvent.runFinished());
+            events.close();
+        } catch (RuntimeException | Error ex) {
+            events.closeExceptionally(ex);
+            throw ex;
+        } finally {
+            if (recording != null) {
+                stopRecording(recording);
+            }
+            store.close();
+            CompletableFuture.allOf(delivered.toArray(new CompletableFuture<?>[0]))
+                .exceptionally(t -> null)
+                .join();
         }
-        for (Test t : isolatedTests) {
-            isolatedResults.put(t, t.test());
+
+        if (fullOutput != null) {
+            overviewOutput.println("\nFull test output was written to: " + fullOutput);
+        }
+        if (flightRecording != null) {
+            overviewOutput.println("Flight recording was written to: " + flightRecording);
+        }
+        return runResults;
+    }
+
+    private Recording startRecording() {
+        try {
+            return Recordings.start("matrnr test run");
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not start the flight recording", ex);
         }
-        Pair<Map<TestSuite, Map<Test, TestResult>>, Map<Test, TestResult>> cumulated = new Pair<>(suiteResults, isolatedResults);
-        printResults(cumulated);
-        return cumulated;
     }
 
-    private void printResults(Pair<Map<TestSuite, Map<Test, TestResult>>, Map<Test, TestResult>> results) {
-        printOverview(results);
+    private void stopRecording(Recording recording) {
+        try {
+            Recordings.stop(recording, flightRecording);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not write the flight recording " + flightRecording, ex);
+        }
+    }
+
+    private void loadHistory() {
+        try {
+            history.load();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not read the test history " + history.getFile(), ex);
+        }
+    }
+
+    private void saveHistory() {
+        try {
+            history.save();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not write the test history " + history.getFile(), ex);
+        }
+    }
+
+    private void loadSnapshot() {
+        try {
+            impactAnalysis.load();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not read the impact analysis snapshot " + impactAnalysis.getSnapshot(), ex);
+        }
+    }
+
+    private void saveSnapshot() {
+        try {
+            impactAnalysis.save();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not write the impact analysis snapshot " + impactAnalysis.getSnapshot(), ex);
+        }
+    }
+
+    private List<CompletableFuture<Void>> attachSubscribers(SubmissionPublisher<TestEvent> events) {
+        List<Flow.Subscriber<? super TestEvent>> subscribers = new ArrayList<>();
+        subscribers.add(new OverviewReporter(this, overviewOutput));
         if (fullOutput != null) {
-            overviewOutput.println("\nFull test output was written to: " + fullOutput);
-            printFull(results);
-        }
-    }
-
-    private void printOverview(Pair<Map<TestSuite, Map<Test, TestResult>>, Map<Test, TestResult>> results) {
-        Collection<TestResult> allResults = results.first()
-            .values()
-            .stream()
-            .flatMap(map -> map.values().stream())
-            .collect(Collectors.toList());
-        allResults.addAll(results.second().values());
-
-        long totalSuccesses = allResults.stream().filter(TestResult::successful).count();
-        long totalFailures = allResults.stream().filter(tr -> !tr.successful()).count();
-        long totalTests = totalSuccesses + totalFailures;
-
-        printer.printHeading(REPORT_WIDTH, "PERFORMED TEST ROUTINE, RESULTS BELOW")
-            .printHeading(REPORT_WIDTH, "OVERVIEW")
-            .printTableRow(REPORT_PADDING, "[Suite]", "[SUCCESS]", "[FAILURE]")
-            .printEmptyLine()
-            .printTableRow(REPORT_PADDING, "total", Long.toString(totalSuccesses), Long.toString(totalFailures))
-            .printHeading(REPORT_WIDTH, "DETAIL REPORT")
-            .printTableRow(REPORT_PADDING, "[Suite]", "[SUCCESS]", "[FAILURE]")
-            .printEmptyLine();
-        for (Map.Entry<TestSuite, Map<Test, TestResult>> suiteResult : results.first().entrySet()) {
-            long suiteSuccesses = suiteResult.getValue().values().stream().filter(TestResult::successful).count();
-            long suiteFailures = suiteResult.getValue().values().stream().filter(tr -> !tr.successful()).count();
-            printer.printTableRow(REPORT_PADDING, suiteResult.getKey().getName(), Long.toString(suiteSuccesses), Long.toString(suiteFailures));
-        }
-        long isolatedSuccesses = results.second().values().stream().filter(TestResult::successful).count();
-        long isolatedFailures = results.second().values().stream().filter(tr -> !tr.successful()).count();
-        printer.printTableRow(REPORT_PADDING, "isolated tests", Long.toString(isolatedSuccesses), Long.toString(isolatedFailures))
-            .printHeading(REPORT_WIDTH, "STATS")
-            .printEmptyLine()
-            .printTableRow(STATS_PADDING, "Total tests performed:", Long.toString(totalTests))
-            .printTableRow(STATS_PADDING, "Total succeeded (%):", Double.toString((totalSuccesses * 100.0) / totalTests) + '%')
-            .printTableRow(STATS_PADDING, "Total failed (%):", Double.toString((totalFailures * 100.0) / totalTests) + '%')
-            .printTableRow(STATS_PADDING, "Total coverage (%):", Double.toString(totalCoverage() * 100) + '%');
-
-        if (totalFailures > 0) {
-            Set<Map.Entry<Test, TestResult>> allTests = results.first()
-                .values()
-                .stream()
-                .flatMap(map -> map.entrySet().stream())
-                .collect(Collectors.toSet());
-            allTests.addAll(results.second().entrySet());
-
-            Set<Test> allFailed = allTests.stream()
-                .filter(entry -> !entry.getValue().successful())
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toSet());
-
-            overviewOutput.println();
-            overviewOutput.println();
-            overviewOutput.print("Failed Tests: [");
-            for (Test t : allFailed) {
-                overviewOutput.print(' ');
-                overviewOutput.print(t.getName());
+            subscribers.add(new FullOutputReporter(this, fullOutput, fullOutputFlushInterval));
+        }
+        if (metricsFile != null) {
+            subscribers.add(new MetricsFileReporter(metrics, metricsFile, METRICS_WRITE_INTERVAL));
+        }
+        synchronized (pendingSubscribers) {
+            subscribers.addAll(pendingSubscribers);
+            pendingSubscribers.clear();
+        }
+
+        List<CompletableFuture<Void>> delivered = new ArrayList<>();
+        for (Flow.Subscriber<? super TestEvent> subscriber : subscribers) {
+            CompletableFuture<Void> completion = new CompletableFuture<>();
+            events.subscribe(new CompletionTracker(subscriber, completion));
+            delivered.add(completion);
+        }
+        return delivered;
+    }
+
+    // a test waits for the tests it declares as dependencies and for the tests of prerequisite suites checking one of its classes
+    private TaskGraph plan(
+        List<Pair<TestSuite, Test>> planned,
+        ResultStore store,
+        RunResults runResults,
+        SubmissionPublisher<TestEvent> events
+    ) {
+        TaskGraph graph = new TaskGraph();
+        List<TaskGraph.Node> nodes = new ArrayList<>();
+        Map<String, List<TaskGraph.Node>> byName = new HashMap<>();
+        Map<TestSuite, Map<Test, TaskGraph.Node>> bySuite = new HashMap<>();
+        for (Pair<TestSuite, Test> job : planned) {
+            TestSuite ts = job.first();
+            Test t = job.second();
+            TaskGraph.Node node = graph.add(
+                ts == null ? t.getName() : ts.getName() + '.' + t.getName(),
+                () -> {
+                    TestResult result = runTest(ts, t, events);
+                    if (result == null) {
+                        return false;
+                    }
+                    store.put(ts, t, result);
+                    runResults.index(ts, t, result.getOutcome());
+                    retainedResults.incrementAndGet();
+                    retainedGauge.add(1);
+                    return result.successful();
+                },
+                prerequisite -> {
+                    TestResult result = skipTest(ts, t, prerequisite, events);
+                    if (result != null) {
+                        store.put(ts, t, result);
+                        runResults.index(ts, t, result.getOutcome());
+                        retainedResults.incrementAndGet();
+                        retainedGauge.add(1);
+                    }
+                }
+            );
+            nodes.add(node);
+            byName.computeIfAbsent(t.getName(), name -> new ArrayList<>()).add(node);
+            if (ts != null) {
+                bySuite.computeIfAbsent(ts, suite -> new HashMap<>()).put(t, node);
             }
-            overviewOutput.print(" ]");
-        }
-    }
-
-    private void printFull(Pair<Map<TestSuite, Map<Test, TestResult>>, Map<Test, TestResult>> results) {
-        try (BufferedWriter writer = Files.newBufferedWriter(
-            fullOutput,
-            StandardCharsets.UTF_8,
-            StandardOpenOption.WRITE,
-            StandardOpenOption.CREATE,
-            StandardOpenOption.TRUNCATE_EXISTING
-        )) {
-            writer.append("==== TEST RESULTS ====");
-            for (Map.Entry<TestSuite, Map<Test, TestResult>> topEntry : results.first().entrySet()) {
-                writer.append(newline());
-                for (Map.Entry<Test, TestResult> nestedEntry : topEntry.getValue().entrySet()) {
-                    writer.append(newline());
-                    writer.append('(')
-                        .append(topEntry.getKey().getName())
-                        .append(") ")
-                        .append(nestedEntry.getKey().getName())
-                        .append(':')
-                        .append(newline())
-                        .append(nestedEntry.getValue().toString());
+        }
+
+        for (int i = 0; i < planned.size(); i++) {
+            TestSuite ts = planned.get(i).first();
+            Test t = planned.get(i).second();
+            TaskGraph.Node node = nodes.get(i);
+            for (String dependency : t.getDependencies()) {
+                for (TaskGraph.Node prerequisite : byName.getOrDefault(dependency, List.of())) {
+                    graph.dependsOn(node, prerequisite);
                 }
             }
-            writer.append(newline());
-            for (Map.Entry<Test, TestResult> entry : results.second().entrySet()) {
-                writer.append(newline())
-                    .append("(isolated) ")
-                    .append(entry.getKey().getName())
-                    .append(':')
-                    .append(newline())
-                    .append(entry.getValue().toString());
+            if (ts == null) {
+                continue;
             }
-
-            writer.append(newlines(3))
-                .append("==== OVERVIEW OF TEST SUITES AND TESTS ====")
-                .append(newline());
-            for (Map.Entry<TestSuite, Map<Test, TestResult>> topEntry : results.first().entrySet()) {
-                writer.append(topEntry.getKey().toString())
-                    .append(newline())
-                    .append("Test details:");
-                for (Map.Entry<Test, TestResult> nestedEntry : topEntry.getValue().entrySet()) {
-                    writer.append(newline())
-                        .append(nestedEntry.getKey().toString());
+            for (TestSuite prerequisiteSuite : ts.getPrerequisites()) {
+                // prerequisite suites that are not registered impose nothing
+                for (Map.Entry<Test, TaskGraph.Node> prerequisite : bySuite.getOrDefault(prerequisiteSuite, Map.of()).entrySet()) {
+                    if (!Collections.disjoint(prerequisite.getKey().getTestClasses(), t.getTestClasses())) {
+                        graph.dependsOn(node, prerequisite.getValue());
+                    }
                 }
-                writer.append(newlines(2));
             }
+        }
+        return graph;
+    }
 
-            if (!results.second().isEmpty()) {
-                writer.append("Isolated Tests:");
-                for (Map.Entry<Test, TestResult> entry : results.second().entrySet()) {
-                    writer.append(newline())
-                        .append(entry.getKey().toString());
-                }
+    private void execute(TaskGraph graph) {
+        peakInFlight.set(0);
+        failures.set(0);
+        suiteDeadlines.clear();
+        startedSuites.clear();
+        try {
+            graph.execute(executionStrategy.newExecutor());
+        } finally {
+            // suites with tests that never finished, because the run was stopped or a test blew up
+            for (Map.Entry<TestSuite, SuiteProgress> started : startedSuites.entrySet()) {
+                started.getValue().abandon(started.getKey());
+            }
+        }
+    }
+
+    private void suiteStarted(TestSuite suite, SubmissionPublisher<TestEvent> events) {
+        if (suite != null && startedSuites.putIfAbsent(suite, new SuiteProgress(suite)) == null) {
+            events.submit(TestEvent.suiteStarted(suite));
+        }
+    }
+
+    // nanos is -1 for tests that did not run
+    private void finished(TestSuite suite, Test t, TestResult result, long nanos, TestExecutionEvent event, SubmissionPublisher<TestEvent> events) {
+        event.finish(suite, t, result);
+        if (result.isSkipped()) {
+            testsSkipped.increment();
+        } else {
+            testsRun.increment();
+            (result.successful() ? testsPassed : testsFailed).increment();
+            testDuration.observe(suite == null ? "isolated" : suite.getName(), nanos / 1e9);
+        }
+        if (suite != null) {
+            startedSuites.get(suite).finished(suite, result);
+        }
+        events.submit(TestEvent.testFinished(suite, t, result));
+    }
+
+    // null if the run was stopped, the test then counts as not run rather than as skipped
+    private TestResult skipTest(TestSuite suite, Test t, TaskGraph.Node prerequisite, SubmissionPublisher<TestEvent> events) {
+        if (failures.get() >= maxFailures) {
+            return null;
+        }
+        TestExecutionEvent event = new TestExecutionEvent();
+        event.begin();
+        suiteStarted(suite, events);
+        TestResult result = TestResult.builder()
+            .skipped()
+            .note("skipped", "Skipped, because its prerequisite '{}' did not succeed", prerequisite.getName())
+            .build();
+        finished(suite, t, result, -1, event, events);
+        return result;
+    }
+
+    // null if the test was not started because the run was stopped
+    private TestResult runTest(TestSuite suite, Test t, SubmissionPublisher<TestEvent> events) {
+        if (failures.get() >= maxFailures) {
+            return null;
+        }
+        TestExecutionEvent event = new TestExecutionEvent();
+        event.begin();
+        suiteStarted(suite, events);
+        events.submit(TestEvent.testStarted(suite, t));
+
+        long start = System.nanoTime();
+        TestResult result = reusableResult(t);
+        if (result == null) {
+            peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            inFlightGauge.add(1);
+            try {
+                result = runBounded(suite, t);
+            } finally {
+                inFlightGauge.add(-1);
+                inFlight.decrementAndGet();
+            }
+            history.record(t, result, System.nanoTime() - start);
+        }
+        if (!result.successful()) {
+            failures.incrementAndGet();
+        }
+
+        if (impactAnalysis != null) {
+            impactAnalysis.record(t, result);
+        }
+
+        finished(suite, t, result, System.nanoTime() - start, event, events);
+        return result;
+    }
+
+    private TestResult reusableResult(Test t) {
+        TestResult result = resultCache == null ? null : resultCache.lookup(t);
+        if (result == null && impactAnalysis != null) {
+            result = impactAnalysis.previousResult(t);
+        }
+        return result;
+    }
+
+    private TestResult runBounded(TestSuite suite, Test t) {
+        long timeout = testTimeoutNanos;
+        if (suite != null && suiteTimeoutNanos != Long.MAX_VALUE) {
+            // the budget of a suite starts running with the first of its tests
+            long now = System.nanoTime();
+            long suiteRemaining = suiteDeadlines.computeIfAbsent(suite, ts -> now + suiteTimeoutNanos) - now;
+            if (suiteRemaining <= 0) {
+                return TestResult.builder()
+                    .failure()
+                    .note("suiteTimeout", "Time budget of suite '{}' ({} ms) was exhausted before the test started",
+                        suite.getName(), TimeUnit.NANOSECONDS.toMillis(suiteTimeoutNanos))
+                    .build();
+            }
+            timeout = Math.min(timeout, suiteRemaining);
+        }
+        if (timeout == Long.MAX_VALUE) {
+            return cache(t, measure(t));
+        }
+
+        long start = System.nanoTime();
+        try {
+            return cache(t, Watchdog.call(() -> measure(t), timeout, "test-" + t.getName()));
+        } catch (Watchdog.Expired ex) {
+            TimeoutException timeoutException = new TimeoutException(
+                "Test '" + t.getName() + "' did not finish within " + TimeUnit.NANOSECONDS.toMillis(timeout) + " ms"
+            );
+            timeoutException.setStackTrace(ex.getStackTrace());
+            return TestResult.builder()
+                .failure()
+                .unexpected(timeoutException)
+                .note("testTimeout", "{} and was abandoned. Stack of the stuck thread {}", timeoutException.getMessage(), ex.stackDump())
+                // the abandoned thread cannot be measured, but the time it held up the run counts
+                .metrics(new TestMetrics(System.nanoTime() - start, -1, -1))
+                .build();
+        }
+    }
+
+    // runs on the thread of the test, so nothing it created outlives it unless the retention keeps it
+    private TestResult measure(Test t) {
+        return testedObjectRetention.apply(exceptionCapture.apply(ResourceMeter.measure(t)));
+    }
+
+    // only results the test produced itself, not exhausted budgets or timeouts
+    private TestResult cache(Test t, TestResult result) {
+        if (resultCache != null) {
+            resultCache.store(t, result);
+        }
+        return result;
+    }
+
+    // the JFR event of a suite spans all of its tests, which may run on different threads
+    private static class SuiteProgress {
+        private final SuiteExecutionEvent event = new SuiteExecutionEvent();
+        private final AtomicInteger remaining;
+        private final AtomicInteger failed = new AtomicInteger();
+        private final AtomicInteger skipped = new AtomicInteger();
+
+        private SuiteProgress(TestSuite suite) {
+            remaining = new AtomicInteger(suite.getTests().size());
+            event.begin();
+        }
+
+        private void finished(TestSuite suite, TestResult result) {
+            if (result.isSkipped()) {
+                skipped.incrementAndGet();
+            } else if (!result.successful()) {
+                failed.incrementAndGet();
+            }
+            if (remaining.decrementAndGet() == 0) {
+                event.finish(suite, failed.get() + skipped.get() == 0 ? "SUCCESS" : "FAILURE", failed.get(), skipped.get());
+            }
+        }
+
+        private void abandon(TestSuite suite) {
+            if (remaining.getAndSet(0) > 0) {
+                event.finish(suite, "STOPPED", failed.get(), skipped.get());
+            }
+        }
+    }
+
+    private static class CompletionTracker implements Flow.Subscriber<TestEvent> {
+        private final Flow.Subscriber<? super TestEvent> delegate;
+        private final CompletableFuture<Void> completion;
+
+        private CompletionTracker(Flow.Subscriber<? super TestEvent> subscriber, CompletableFuture<Void> whenDone) {
+            delegate = subscriber;
+            completion = whenDone;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            delegate.onSubscribe(subscription);
+        }
+
+        @Override
+        public void onNext(TestEvent item) {
+            delegate.onNext(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            try {
+                delegate.onError(throwable);
+            } finally {
+                completion.complete(null);
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            try {
+                delegate.onComplete();
+            } finally {
+                completion.complete(null);
             }
-        } catch (IOException ex) {
-            System.err.println("Could not write full output to defined path '" + fullOutput + "', exception: " + ex);
         }
     }
 
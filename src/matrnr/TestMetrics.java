@@ -0,0 +1,49 @@
+package matrnr;
+
+import java.util.Locale;
+
+// what a single run of Test.test() cost; a value of -1 means the JVM could not measure it
+public final class TestMetrics {
+    public static final TestMetrics UNKNOWN = new TestMetrics(-1, -1, -1);
+
+    private final long wallNanos;
+    private final long cpuNanos;
+    private final long allocatedBytes;
+
+    public TestMetrics(long wallNanos, long cpuNanos, long allocatedBytes) {
+        this.wallNanos = wallNanos;
+        this.cpuNanos = cpuNanos;
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    public long getWallNanos() {
+        return wallNanos;
+    }
+
+    public long getCpuNanos() {
+        return cpuNanos;
+    }
+
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    public boolean isKnown() {
+        return wallNanos >= 0;
+    }
+
+    public static String formatMillis(long nanos) {
+        return nanos < 0 ? "-" : String.format(Locale.ROOT, "%.1f ms", nanos / 1_000_000.0);
+    }
+
+    public static String formatMebibytes(long bytes) {
+        return bytes < 0 ? "-" : String.format(Locale.ROOT, "%.2f MiB", bytes / (1024.0 * 1024.0));
+    }
+
+    @Override
+    public String toString() {
+        return "wall time: " + formatMillis(wallNanos)
+            + ", CPU time: " + formatMillis(cpuNanos)
+            + ", allocated: " + formatMebibytes(allocatedBytes);
+    }
+}
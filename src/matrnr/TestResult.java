@@ -2,37 +2,132 @@ package matrnr;
 
 import matrnr.utils.NullChecker;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Executable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 
 public class TestResult {
     private static final NullChecker C = new NullChecker(new IllegalArgumentException("TestResults do not accept null values in constructors"));
 
+    public enum Outcome {
+        SUCCESS,
+        FAILURE,
+        // not run, because a test it depends on did not succeed
+        SKIPPED
+    }
+
+    // one remark of a test: free text, or a message of a named check that can be aggregated across results
+    public static final class Note {
+        private static final String PLACEHOLDER = "{}";
+
+        private final String check;
+        private final Executable executable;
+        private final String template;
+        private final Object[] arguments;
+
+        private Note(String check, Executable executable, String template, Object[] arguments) {
+            this.check = check;
+            this.executable = executable;
+            this.template = template;
+            this.arguments = arguments;
+        }
+
+        // null for free text
+        public String getCheck() {
+            return check;
+        }
+
+        // null if the note is not about a single method or constructor
+        public Executable getExecutable() {
+            return executable;
+        }
+
+        public String getTemplate() {
+            return template;
+        }
+
+        public List<Object> getArguments() {
+            return Arrays.asList(arguments.clone());
+        }
+
+        public boolean isFreeText() {
+            return check == null;
+        }
+
+        public String getMessage() {
+            return appendMessage(new StringBuilder()).toString();
+        }
+
+        // free text is taken as it is, a check's message gets a line of its own
+        private void appendTo(StringBuilder out) {
+            if (!isFreeText()) {
+                out.append('\n');
+            }
+            appendMessage(out);
+        }
+
+        // every {} takes the next argument, surplus placeholders stay as they are
+        private StringBuilder appendMessage(StringBuilder out) {
+            int from = 0;
+            for (Object argument : arguments) {
+                int at = template.indexOf(PLACEHOLDER, from);
+                if (at < 0) {
+                    break;
+                }
+                out.append(template, from, at)
+                    .append(argument);
+                from = at + PLACEHOLDER.length();
+            }
+            return out.append(template, from, template.length());
+        }
+
+        @Override
+        public String toString() {
+            return isFreeText() ? template : check + ": " + getMessage();
+        }
+    }
+
     public static class Builder {
-        private boolean result;
+        private Outcome outcome;
         private List<Throwable> unexpectedExceptions = new ArrayList<>();
         private List<Throwable> expectedExceptions = new ArrayList<>();
-        private String notes;
+        private List<Note> notes = new ArrayList<>();
         private Collection<Object> testedObjects = new ArrayList<>();
+        private boolean cached;
+        private TestMetrics metrics;
 
         private Builder() {
-            result = false;
-            notes = "";
+            outcome = Outcome.FAILURE;
+            cached = false;
+            metrics = TestMetrics.UNKNOWN;
         }
 
         public Builder success() {
-            result = true;
+            outcome = Outcome.SUCCESS;
             return this;
         }
 
         public Builder failure() {
-            result = false;
+            outcome = Outcome.FAILURE;
+            return this;
+        }
+
+        public Builder skipped() {
+            outcome = Outcome.SKIPPED;
             return this;
         }
 
         public Builder result(boolean testResult) {
-            result = testResult;
+            outcome = testResult ? Outcome.SUCCESS : Outcome.FAILURE;
+            return this;
+        }
+
+        public Builder outcome(Outcome testOutcome) {
+            outcome = testOutcome;
             return this;
         }
 
@@ -56,13 +151,31 @@ public class TestResult {
             return this;
         }
 
+        // replaces all notes with the given free text
         public Builder notes(String additionalNotes) {
-            notes = additionalNotes;
+            notes = new ArrayList<>();
+            return appendNote(additionalNotes);
+        }
+
+        public Builder notes(List<Note> additionalNotes) {
+            notes = new ArrayList<>(additionalNotes);
             return this;
         }
 
         public Builder appendNote(String note) {
-            notes += note;
+            if (!note.isEmpty()) {
+                notes.add(new Note(null, null, note, new Object[0]));
+            }
+            return this;
+        }
+
+        // the message is only put together when the notes are rendered
+        public Builder note(String check, String template, Object... arguments) {
+            return note(check, null, template, arguments);
+        }
+
+        public Builder note(String check, Executable executable, String template, Object... arguments) {
+            notes.add(new Note(C.check(check), executable, C.check(template), C.check(arguments)));
             return this;
         }
 
@@ -76,35 +189,54 @@ public class TestResult {
             return this;
         }
 
+        public Builder cached(boolean fromCache) {
+            cached = fromCache;
+            return this;
+        }
+
+        public Builder metrics(TestMetrics testMetrics) {
+            metrics = testMetrics;
+            return this;
+        }
+
         public TestResult build() {
             return new TestResult(
-                result,
+                outcome,
                 unexpectedExceptions,
                 expectedExceptions,
                 notes,
-                testedObjects
+                testedObjects,
+                cached,
+                metrics
             );
         }
     }
 
     private final Collection<Object> testedObjects;
-    private final boolean success;
+    private final Outcome outcome;
     private final List<Throwable> unexpectedExceptions;
     private final List<Throwable> expectedExceptions;
-    private final String notes;
+    private final List<Note> notes;
+    private volatile String renderedNotes;
+    private final boolean cached;
+    private final TestMetrics metrics;
 
     private TestResult(
-        boolean result,
+        Outcome testOutcome,
         List<Throwable> unexpected,
         List<Throwable> expected,
-        String additionalNotes,
-        Collection<Object> objects
+        List<Note> additionalNotes,
+        Collection<Object> objects,
+        boolean fromCache,
+        TestMetrics testMetrics
     ) {
-        success = result;
+        outcome = C.check(testOutcome);
         unexpectedExceptions = unexpected == null ? new ArrayList<>() : C.checkAll(unexpected);
         expectedExceptions = expected == null ? new ArrayList<>() : C.checkAll(expected);
-        notes = C.check(additionalNotes);
+        notes = List.copyOf(C.checkAll(additionalNotes));
         testedObjects = objects == null ? new ArrayList<>() : C.checkAll(objects);
+        cached = fromCache;
+        metrics = C.check(testMetrics);
     }
 
     public static Builder builder() {
@@ -112,7 +244,15 @@ public class TestResult {
     }
 
     public boolean successful() {
-        return success;
+        return outcome == Outcome.SUCCESS;
+    }
+
+    public boolean isSkipped() {
+        return outcome == Outcome.SKIPPED;
+    }
+
+    public Outcome getOutcome() {
+        return outcome;
     }
 
     public List<Throwable> getUnexpectedExceptions() {
@@ -123,7 +263,21 @@ public class TestResult {
         return expectedExceptions;
     }
 
+    // all notes rendered into one text, the first call renders them
     public String getNotes() {
+        String rendered = renderedNotes;
+        if (rendered == null) {
+            StringBuilder sb = new StringBuilder();
+            for (Note note : notes) {
+                note.appendTo(sb);
+            }
+            rendered = sb.toString();
+            renderedNotes = rendered;
+        }
+        return rendered;
+    }
+
+    public List<Note> getNoteList() {
         return notes;
     }
 
@@ -131,46 +285,73 @@ public class TestResult {
         return testedObjects;
     }
 
+    // served from a ResultCache instead of running the test
+    public boolean isCached() {
+        return cached;
+    }
+
+    // TestMetrics.UNKNOWN for results that were not measured, e.g. cached ones
+    public TestMetrics getMetrics() {
+        return metrics;
+    }
+
     public Builder thisBuilder() {
         return builder()
-            .result(success)
+            .outcome(outcome)
             .unexpectedExceptions(unexpectedExceptions)
             .expectedExceptions(expectedExceptions)
             .notes(notes)
-            .testedObjects(testedObjects);
+            .testedObjects(testedObjects)
+            .cached(cached)
+            .metrics(metrics);
     }
 
-    @Override
-    public String toString() {
-        StringBuilder sb = new StringBuilder("Result: [");
-
-        sb.append(success ? "SUCCESS" : "FAILURE")
+    public <A extends Appendable> A appendTo(A out) throws IOException {
+        out.append("Result: [")
+            .append(outcome.name())
             .append(']');
+        if (cached) {
+            out.append(" (cached)");
+        }
+        if (metrics.isKnown()) {
+            out.append("\nMeasured ")
+                .append(metrics.toString());
+        }
         if (!unexpectedExceptions.isEmpty()) {
-            sb.append("\nThe following unexpected exceptions occurred:");
+            out.append("\nThe following unexpected exceptions occurred:");
             for (Throwable t : unexpectedExceptions) {
-                sb.append("\n\t- ")
-                    .append(t);
+                out.append("\n\t- ")
+                    .append(t.toString());
             }
         }
         if (!expectedExceptions.isEmpty()) {
-            sb.append("\nThe following expected exceptions occurred:");
+            out.append("\nThe following expected exceptions occurred:");
             for (Throwable t : expectedExceptions) {
-                sb.append("\n\t- ")
-                    .append(t);
+                out.append("\n\t- ")
+                    .append(t.toString());
             }
         }
-        if (!notes.isBlank()) {
-            sb.append("\nAdditional notes: ")
-                .append(notes);
+        if (!getNotes().isBlank()) {
+            out.append("\nAdditional notes: ")
+                .append(getNotes());
         }
         if (!testedObjects.isEmpty()) {
-            sb.append("\nDump of tested objects:");
+            out.append("\nDump of tested objects:");
             for (Object obj : testedObjects) {
-                sb.append("\n\t- ")
-                    .append(obj);
+                out.append("\n\t- ")
+                    .append(String.valueOf(obj));
             }
         }
-        return sb.toString();
+        return out;
+    }
+
+    @Override
+    public String toString() {
+        try {
+            return appendTo(new StringBuilder()).toString();
+        } catch (IOException ex) {
+            // StringBuilder does not throw
+            throw new UncheckedIOException(ex);
+        }
     }
 }
@@ -4,25 +4,36 @@ import matrnr.utils.NullChecker;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
-import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Supplier;
 
 public class TestSuite {
     private static final NullChecker C =
         new NullChecker(new IllegalArgumentException("Test Suites do not accept null values in constructors"));
 
     private final String name;
-    private final List<Test> tests = new ArrayList<>();
+    private final Supplier<List<Test>> testSupplier;
+    private volatile List<Test> tests;
+    private volatile CoverageModel coverage;
+    private final Set<TestSuite> prerequisites = new LinkedHashSet<>();
 
     public TestSuite(String suiteName, List<Test> inputTests) {
-        name = suiteName;
-        tests.addAll(C.checkAll(inputTests));
+        name = C.check(suiteName);
+        testSupplier = null;
+        tests = List.copyOf(C.checkAll(inputTests));
+    }
+
+    // the tests are only constructed when they are needed for the first time, e.g. when an engine runs the suite
+    public TestSuite(String suiteName, Supplier<List<Test>> inputTests) {
+        name = C.check(suiteName);
+        testSupplier = C.check(inputTests);
     }
 
     public TestSuite(String suiteName, Test... inputTests) {
@@ -34,68 +45,82 @@ public class TestSuite {
     }
 
     public List<Test> getTests() {
-        return tests;
+        List<Test> result = tests;
+        if (result == null) {
+            synchronized (this) {
+                if (tests == null) {
+                    tests = List.copyOf(C.checkAll(C.check(testSupplier.get())));
+                }
+                result = tests;
+            }
+        }
+        return result;
+    }
+
+    // each test of this suite waits for the tests of the prerequisites that check one of its classes,
+    // and is skipped if one of them does not succeed
+    public TestSuite dependsOn(TestSuite... suites) {
+        for (TestSuite ts : C.check(suites)) {
+            if (C.check(ts).equals(this)) {
+                throw new IllegalArgumentException("Suite '" + name + "' cannot depend on itself");
+            }
+            prerequisites.add(ts);
+        }
+        return this;
+    }
+
+    public Set<TestSuite> getPrerequisites() {
+        return Collections.unmodifiableSet(prerequisites);
+    }
+
+    public CoverageModel coverage() {
+        CoverageModel result = coverage;
+        if (result == null) {
+            synchronized (this) {
+                if (coverage == null) {
+                    coverage = new CoverageModel().registerAll(getTests());
+                }
+                result = coverage;
+            }
+        }
+        return result;
     }
 
     public double suiteCoverage() {
-        return ((double) coveredMethods().size() + coveredConstructors().size()) / (allMethods().size() + allConstructors().size());
+        return coverage().coverage();
     }
 
     public Set<Class<?>> coveredClasses() {
-        Set<Class<?>> allClasses = new HashSet<>();
-        for (Test t : tests) {
-            allClasses.addAll(t.getTestClasses());
-        }
-        return allClasses;
+        return coverage().coveredClasses();
     }
 
     public Set<Method> allMethods() {
-        Set<Method> all = new HashSet<>();
-        for (Test t : tests) {
-            all.addAll(t.allMethods());
-        }
-        return all;
+        return coverage().allMethods();
     }
 
     public Set<Constructor<?>> allConstructors() {
-        Set<Constructor<?>> all = new HashSet<>();
-        for (Test t : tests) {
-            all.addAll(t.allConstructors());
-        }
-        return all;
+        return coverage().allConstructors();
     }
 
     public Set<Method> coveredMethods() {
-        Set<Method> covered = new HashSet<>();
-        for (Test t : tests) {
-            covered.addAll(t.coveredMethods());
-        }
-        return covered;
+        return coverage().coveredMethods();
     }
 
     public Set<Constructor<?>> coveredConstructors() {
-        Set<Constructor<?>> covered = new HashSet<>();
-        for (Test t : tests) {
-            covered.addAll(t.coveredConstructors());
-        }
-        return covered;
+        return coverage().coveredConstructors();
     }
 
     public Set<Method> uncoveredMethods() {
-        Set<Method> all = allMethods();
-        all.removeAll(coveredMethods());
-        return all;
+        return coverage().uncoveredMethods();
     }
 
     public Set<Constructor<?>> uncoveredConstructors() {
-        Set<Constructor<?>> all = allConstructors();
-        all.removeAll(coveredConstructors());
-        return all;
+        return coverage().uncoveredConstructors();
     }
 
     public Map<Test, TestResult> test() {
         Map<Test, TestResult> results = new HashMap<>();
-        for (Test t : tests) {
+        for (Test t : getTests()) {
             results.put(t, t.test());
         }
 
@@ -107,14 +132,14 @@ public class TestSuite {
         if (this == other) return true;
         if (other instanceof TestSuite) {
             TestSuite otherTestSuite = (TestSuite) other;
-            return tests.equals(otherTestSuite.tests);
+            return name.equals(otherTestSuite.name);
         }
         return false;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(tests);
+        return Objects.hash(name);
     }
 
     @Override
@@ -129,7 +154,7 @@ public class TestSuite {
         sb.append(" ]\noverall coverage: ")
             .append(suiteCoverage() * 100)
             .append("%\nTests: [");
-        for (Test t : tests) {
+        for (Test t : getTests()) {
             sb.append(" '")
                 .append(t.getName())
                 .append('\'');
@@ -0,0 +1,379 @@
+package matrnr.batch;
+
+import matrnr.TestEngine;
+import matrnr.TestSuite;
+import matrnr.execution.ExceptionCapture;
+import matrnr.execution.ExecutionStrategy;
+import matrnr.metrics.MetricsEndpoint;
+import matrnr.metrics.MetricsRegistry;
+import matrnr.utils.NullChecker;
+import matrnr.utils.TablePrinter;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class BatchRunner {
+    private static final NullChecker C = new NullChecker(new IllegalArgumentException("BatchRunners do not accept null values"));
+    private static final String SUITES_CLASS = "matrnr.suites.Suites";
+    private static final String OVERVIEW_FILE = "overview.txt";
+    private static final String FULL_OUTPUT_FILE = "full.txt";
+    private static final String RESULTS_FILE = "results.bin";
+    private static final String SUMMARY_FILE = "summary.txt";
+    private static final String BYTECODE_CACHE = ".bytecode-cache";
+    private static final int REPORT_WIDTH = 79;
+    private static final int REPORT_PADDING = 25;
+
+    public static class Builder {
+        private Path submissions;
+        private Path output;
+        private Path bytecodeCache;
+        private final Set<String> suites;
+        private ExecutionStrategy executionStrategy;
+        private PrintStream summaryOutput;
+        private Consumer<TestEngine.Builder> engineConfiguration;
+        private Path metricsFile;
+        private int metricsPort;
+
+        private Builder() {
+            submissions = null;
+            output = null;
+            bytecodeCache = null;
+            suites = new LinkedHashSet<>();
+            executionStrategy = ExecutionStrategy.forkJoin(Runtime.getRuntime().availableProcessors());
+            summaryOutput = System.out;
+            engineConfiguration = engine -> {
+            };
+            metricsFile = null;
+            metricsPort = -1;
+        }
+
+        // every subdirectory is one submission, holding either its sources or the compiled classes (matrnr/Member.class, ...)
+        public Builder submissions(Path directory) {
+            submissions = directory;
+            return this;
+        }
+
+        // receives <submission>/overview.txt, <submission>/full.txt and summary.txt
+        public Builder output(Path directory) {
+            output = directory;
+            return this;
+        }
+
+        // compiled submissions are cached here, defaults to <output>/.bytecode-cache
+        public Builder bytecodeCache(Path directory) {
+            bytecodeCache = directory;
+            return this;
+        }
+
+        // name of a field in matrnr.suites.Suites, e.g. "STRUCTURE_CHECKS"; all suites are run if none are registered
+        public Builder registerSuite(String field) {
+            suites.add(C.check(field));
+            return this;
+        }
+
+        public Builder registerSuites(Collection<String> fields) {
+            for (String field : C.checkAll(fields)) {
+                registerSuite(field);
+            }
+            return this;
+        }
+
+        // how many submissions are graded at the same time
+        public Builder parallelism(int submissionsInParallel) {
+            executionStrategy = submissionsInParallel == 1
+                ? ExecutionStrategy.sequential()
+                : ExecutionStrategy.forkJoin(submissionsInParallel);
+            return this;
+        }
+
+        public Builder executionStrategy(ExecutionStrategy strategy) {
+            executionStrategy = strategy;
+            return this;
+        }
+
+        public Builder summaryOutput(PrintStream stream) {
+            summaryOutput = stream;
+            return this;
+        }
+
+        // applied to the engine of every submission after its suites and outputs are set, e.g. to set timeouts
+        public Builder configureEngine(Consumer<TestEngine.Builder> configuration) {
+            engineConfiguration = configuration;
+            return this;
+        }
+
+        // the metrics of all engines of a run, rewritten whenever a submission is done
+        public Builder metricsFile(Path file) {
+            metricsFile = file;
+            return this;
+        }
+
+        // serves the metrics of all engines of a run on the loopback interface from its start to its end, 0 picks a free port
+        public Builder metricsPort(int port) {
+            if (port < 0 || port > 65535) {
+                throw new IllegalArgumentException("Not a valid port: " + port);
+            }
+            metricsPort = port;
+            return this;
+        }
+
+        public BatchRunner build() {
+            return new BatchRunner(submissions, output, bytecodeCache, suites, executionStrategy, summaryOutput, engineConfiguration, metricsFile, metricsPort);
+        }
+    }
+
+    private final Path submissions;
+    private final Path output;
+    private final SubmissionCompiler compiler;
+    private final List<String> suites;
+    private final ExecutionStrategy executionStrategy;
+    private final PrintStream summaryOutput;
+    private final Consumer<TestEngine.Builder> engineConfiguration;
+    private final Path metricsFile;
+    private final int metricsPort;
+
+    private BatchRunner(
+        Path submissions,
+        Path output,
+        Path bytecodeCache,
+        Set<String> suites,
+        ExecutionStrategy executionStrategy,
+        PrintStream summaryOutput,
+        Consumer<TestEngine.Builder> engineConfiguration,
+        Path metricsFile,
+        int metricsPort
+    ) {
+        this.submissions = C.check(submissions);
+        this.output = C.check(output);
+        this.compiler = new SubmissionCompiler(bytecodeCache == null ? output.resolve(BYTECODE_CACHE) : bytecodeCache);
+        this.suites = suites.isEmpty() ? allSuiteFields() : checkSuiteFields(suites);
+        this.executionStrategy = C.check(executionStrategy);
+        this.summaryOutput = C.check(summaryOutput);
+        this.engineConfiguration = C.check(engineConfiguration);
+        this.metricsFile = metricsFile; // nullable
+        this.metricsPort = metricsPort;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    // only looks at the declarations, Suites itself is initialized once per submission
+    private static Class<?> suitesClass() {
+        try {
+            return Class.forName(SUITES_CLASS, false, BatchRunner.class.getClassLoader());
+        } catch (ClassNotFoundException ex) {
+            throw new IllegalStateException(SUITES_CLASS + " is not on the class path", ex);
+        }
+    }
+
+    private static boolean isSuiteField(Field f) {
+        return Modifier.isStatic(f.getModifiers()) && TestSuite.class.equals(f.getType());
+    }
+
+    private static List<String> allSuiteFields() {
+        List<String> fields = new ArrayList<>();
+        for (Field f : suitesClass().getFields()) {
+            if (isSuiteField(f)) {
+                fields.add(f.getName());
+            }
+        }
+        return fields;
+    }
+
+    private static List<String> checkSuiteFields(Set<String> fields) {
+        Class<?> suites = suitesClass();
+        for (String name : fields) {
+            try {
+                if (!isSuiteField(suites.getField(name))) {
+                    throw new IllegalArgumentException(SUITES_CLASS + '.' + name + " is not a test suite");
+                }
+            } catch (NoSuchFieldException ex) {
+                throw new IllegalArgumentException("There is no suite " + SUITES_CLASS + '.' + name, ex);
+            }
+        }
+        return List.copyOf(fields);
+    }
+
+    public List<String> getSuites() {
+        return suites;
+    }
+
+    public Map<String, SubmissionResult> run() throws IOException {
+        List<Path> found;
+        try (Stream<Path> entries = Files.list(submissions)) {
+            found = entries.filter(Files::isDirectory).filter(p -> !p.getFileName().toString().startsWith(".")).sorted().collect(Collectors.toList());
+        }
+        Files.createDirectories(output);
+
+        // one registry for the whole run, the engine of every submission adds to it
+        MetricsRegistry metrics = new MetricsRegistry();
+        MetricsRegistry.Counter graded = metrics.counter("matrnr_submissions_graded_total", "Submissions whose tests ran");
+        MetricsRegistry.Counter failed = metrics.counter("matrnr_submissions_errors_total", "Submissions that could not be graded");
+        MetricsEndpoint endpoint = startMetricsEndpoint(metrics);
+        Map<String, Future<SubmissionResult>> pending = new LinkedHashMap<>();
+        ExecutorService executor = executionStrategy.newExecutor();
+        try {
+            for (Path submission : found) {
+                String name = submission.getFileName().toString();
+                pending.put(name, executor.submit(() -> {
+                    SubmissionResult result = grade(name, submission, metrics);
+                    (result.hasError() ? failed : graded).increment();
+                    writeMetrics(metrics);
+                    return result;
+                }));
+            }
+
+            Map<String, SubmissionResult> results = new LinkedHashMap<>();
+            for (Map.Entry<String, Future<SubmissionResult>> entry : pending.entrySet()) {
+                results.put(entry.getKey(), await(entry.getKey(), entry.getValue()));
+            }
+
+            printSummary(summaryOutput, results);
+            try (PrintStream summary = new PrintStream(Files.newOutputStream(output.resolve(SUMMARY_FILE)), false, StandardCharsets.UTF_8)) {
+                printSummary(summary, results);
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+            writeMetrics(metrics);
+            if (endpoint != null) {
+                endpoint.stop();
+            }
+        }
+    }
+
+    // a port that cannot be bound costs the run its endpoint, not its results
+    private MetricsEndpoint startMetricsEndpoint(MetricsRegistry metrics) {
+        if (metricsPort < 0) {
+            return null;
+        }
+        try {
+            MetricsEndpoint endpoint = MetricsEndpoint.start(metrics, metricsPort);
+            summaryOutput.println("Serving metrics on http://" + endpoint.getAddress().getHostString() + ':' + endpoint.getAddress().getPort() + "/metrics");
+            return endpoint;
+        } catch (IOException ex) {
+            System.err.println("Could not serve metrics on port " + metricsPort + ", exception: " + ex);
+            return null;
+        }
+    }
+
+    private void writeMetrics(MetricsRegistry metrics) {
+        if (metricsFile == null) {
+            return;
+        }
+        try {
+            metrics.writeTo(metricsFile);
+        } catch (IOException ex) {
+            System.err.println("Could not write metrics to defined path '" + metricsFile + "', exception: " + ex);
+        }
+    }
+
+    private static SubmissionResult await(String name, Future<SubmissionResult> result) {
+        try {
+            return result.get();
+        } catch (ExecutionException ex) {
+            return new SubmissionResult(name, ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return new SubmissionResult(name, ex);
+        }
+    }
+
+    private SubmissionResult grade(String name, Path submission, MetricsRegistry metrics) {
+        Path dir = output.resolve(name);
+        Thread current = Thread.currentThread();
+        ClassLoader previous = current.getContextClassLoader();
+        try {
+            Path classes = SubmissionCompiler.hasSources(submission) ? compiler.compile(submission) : submission;
+            ClassLoader loader = new SubmissionClassLoader(name, classes, BatchRunner.class.getClassLoader());
+            current.setContextClassLoader(loader);
+            Files.createDirectories(dir);
+            try (PrintStream overview = new PrintStream(Files.newOutputStream(dir.resolve(OVERVIEW_FILE)), false, StandardCharsets.UTF_8)) {
+                Class<?> suitesOfSubmission = Class.forName(SUITES_CLASS, true, loader);
+                TestEngine.Builder builder = TestEngine.builder()
+                    .overviewOutput(overview)
+                    .fullOutput(dir.resolve(FULL_OUTPUT_FILE))
+                    // a batch repeats the same expected failures in every submission
+                    .exceptionCapture(ExceptionCapture.compactExpected())
+                    .spillResults(dir.resolve(RESULTS_FILE))
+                    .metrics(metrics);
+                for (String field : suites) {
+                    builder.registerSuite((TestSuite) suitesOfSubmission.getField(field).get(null));
+                }
+                engineConfiguration.accept(builder);
+
+                TestEngine engine = builder.build();
+                try {
+                    return new SubmissionResult(name, engine.test(), engine.totalCoverage());
+                } finally {
+                    // an endpoint set through configureEngine would otherwise outlive the submission
+                    engine.stopMetricsEndpoint();
+                }
+            }
+        } catch (Exception | LinkageError ex) {
+            // missing or incompatible classes surface as linkage errors while the suites are created
+            return new SubmissionResult(name, ex);
+        } finally {
+            current.setContextClassLoader(previous);
+        }
+    }
+
+    private static void printSummary(PrintStream out, Map<String, SubmissionResult> results) {
+        TablePrinter printer = new TablePrinter(out);
+        List<SubmissionResult> errors = new ArrayList<>();
+
+        printer.printHeading(REPORT_WIDTH, "BATCH RUN, RESULTS BELOW")
+            .printHeading(REPORT_WIDTH, "SUBMISSIONS")
+            .printTableRow(REPORT_PADDING, "[Submission]", "[SUCCESS]", "[FAILURE]", "[COVERAGE]")
+            .printEmptyLine();
+        for (SubmissionResult r : results.values()) {
+            if (r.hasError()) {
+                errors.add(r);
+                printer.printTableRow(REPORT_PADDING, r.getName(), "-", "-", "ERROR");
+            } else {
+                printer.printTableRow(
+                    REPORT_PADDING,
+                    r.getName(),
+                    Long.toString(r.successes()),
+                    Long.toString(r.failures()),
+                    Double.toString(r.coverage() * 100) + '%'
+                );
+            }
+        }
+        printer.printHeading(REPORT_WIDTH, "STATS")
+            .printEmptyLine()
+            .printTableRow(REPORT_PADDING, "Submissions graded:", Integer.toString(results.size() - errors.size()))
+            .printTableRow(REPORT_PADDING, "Submissions with errors:", Integer.toString(errors.size()));
+
+        if (!errors.isEmpty()) {
+            out.println();
+            out.println("Errors:");
+            for (SubmissionResult r : errors) {
+                out.print("    ");
+                out.print(r.getName());
+                out.print(": ");
+                out.println(r.getError());
+            }
+        }
+        out.flush();
+    }
+}
@@ -0,0 +1,138 @@
+package matrnr.batch;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Set;
+
+// defines the domain classes from a submission, and everything that links against them (tests, suites and their
+// helpers) once more from the engine's own class files, so that e.g. matrnr.tests.MemberContractTest binds to the
+// submission's matrnr.Member. The engine core (Test, TestSuite, TestResult, TestEngine, ...) is shared with the parent.
+class SubmissionClassLoader extends ClassLoader {
+    static {
+        registerAsParallelCapable();
+    }
+
+    private static final String DOMAIN_PACKAGE = "matrnr";
+    private static final Set<String> DOMAIN_CLASSES = Set.of(
+        "matrnr.Level",
+        "matrnr.Member",
+        "matrnr.Sports",
+        "matrnr.SportsClub",
+        "matrnr.Trainer"
+    );
+    private static final Set<String> BOUND_PACKAGES = Set.of("matrnr.tests", "matrnr.suites");
+    private static final Set<String> BOUND_CLASSES = Set.of("matrnr.utils.DefaultObjects", "matrnr.utils.Misc");
+
+    private final Path classes;
+
+    SubmissionClassLoader(String submission, Path classes, ClassLoader engine) {
+        super("submission-" + submission, engine);
+        this.classes = classes;
+    }
+
+    private static String topLevel(String name) {
+        int nested = name.indexOf('$');
+        return nested < 0 ? name : name.substring(0, nested);
+    }
+
+    private static String packageOf(String name) {
+        int dot = name.lastIndexOf('.');
+        return dot < 0 ? "" : name.substring(0, dot);
+    }
+
+    private static String path(String name) {
+        return name.replace('.', '/') + ".class";
+    }
+
+    private boolean fromSubmission(String name) {
+        if (!packageOf(name).equals(DOMAIN_PACKAGE)) {
+            return false;
+        }
+        // helper classes of the submission are fine as long as they don't shadow an engine class
+        return DOMAIN_CLASSES.contains(topLevel(name))
+            || (Files.isRegularFile(classes.resolve(path(name))) && getParent().getResource(path(name)) == null);
+    }
+
+    private static boolean boundToSubmission(String name) {
+        return BOUND_PACKAGES.contains(packageOf(name)) || BOUND_CLASSES.contains(topLevel(name));
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        synchronized (getClassLoadingLock(name)) {
+            Class<?> c = findLoadedClass(name);
+            if (c == null) {
+                if (fromSubmission(name)) {
+                    c = define(name, readSubmission(name));
+                } else if (boundToSubmission(name)) {
+                    c = define(name, readEngine(name));
+                } else {
+                    return super.loadClass(name, resolve);
+                }
+            }
+            if (resolve) {
+                resolveClass(c);
+            }
+            return c;
+        }
+    }
+
+    // ClassBytes reads class files as resources, which have to be the submission's and not the parent's copies
+    @Override
+    public URL getResource(String name) {
+        if (name.endsWith(".class")) {
+            String className = name.substring(0, name.length() - ".class".length()).replace('/', '.');
+            if (fromSubmission(className)) {
+                Path file = classes.resolve(name);
+                try {
+                    return Files.isRegularFile(file) ? file.toUri().toURL() : null;
+                } catch (MalformedURLException ex) {
+                    return null;
+                }
+            }
+        }
+        return super.getResource(name);
+    }
+
+    // the directory of the domain package, so the impact analysis finds classes of the submission nothing refers to by name
+    @Override
+    protected Enumeration<URL> findResources(String name) throws IOException {
+        String pkg = name.endsWith("/") ? name.substring(0, name.length() - 1) : name;
+        Path directory = classes.resolve(pkg);
+        if (pkg.replace('/', '.').equals(DOMAIN_PACKAGE) && Files.isDirectory(directory)) {
+            return Collections.enumeration(List.of(directory.toUri().toURL()));
+        }
+        return Collections.emptyEnumeration();
+    }
+
+    private Class<?> define(String name, byte[] bytes) {
+        return defineClass(name, bytes, 0, bytes.length);
+    }
+
+    private byte[] readSubmission(String name) throws ClassNotFoundException {
+        Path file = classes.resolve(path(name));
+        try {
+            return Files.readAllBytes(file);
+        } catch (IOException ex) {
+            throw new ClassNotFoundException(name + " is not part of the submission (" + file + ')', ex);
+        }
+    }
+
+    private byte[] readEngine(String name) throws ClassNotFoundException {
+        try (InputStream in = getParent().getResourceAsStream(path(name))) {
+            if (in == null) {
+                throw new ClassNotFoundException(name);
+            }
+            return in.readAllBytes();
+        } catch (IOException ex) {
+            throw new ClassNotFoundException(name, ex);
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package matrnr.batch;
+
+import matrnr.utils.ClassBytes;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// compiles the sources of a submission (package a<matrikelnummer>; ...) into the matrnr package, in memory.
+// The class files are cached on disk under a hash of the rewritten sources, so an unchanged submission is only
+// read and hashed when it is graded again.
+public class SubmissionCompiler {
+    private static final String PACKAGE = "matrnr";
+    private static final Pattern PACKAGE_DECLARATION = Pattern.compile("^\\s*package\\s+([\\w.]+)\\s*;", Pattern.MULTILINE);
+    private static final List<String> OPTIONS = List.of("--release", Integer.toString(Runtime.version().feature()), "-proc:none");
+
+    public static class CompilationFailed extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        private final List<String> diagnostics;
+
+        private CompilationFailed(String submission, List<String> diagnostics) {
+            super("Submission '" + submission + "' does not compile: " + String.join("; ", diagnostics));
+            this.diagnostics = List.copyOf(diagnostics);
+        }
+
+        public List<String> getDiagnostics() {
+            return diagnostics;
+        }
+    }
+
+    private final Path cache;
+
+    public SubmissionCompiler(Path cache) {
+        this.cache = cache;
+    }
+
+    public static boolean hasSources(Path submission) throws IOException {
+        try (Stream<Path> files = Files.walk(submission)) {
+            return files.anyMatch(SubmissionCompiler::isSource);
+        }
+    }
+
+    private static boolean isSource(Path file) {
+        return Files.isRegularFile(file) && file.getFileName().toString().endsWith(".java");
+    }
+
+    // returns the directory holding the class files (matrnr/Member.class, ...)
+    public Path compile(Path submission) throws IOException, CompilationFailed {
+        Map<String, String> sources = readSources(submission);
+        Path classes = cache.resolve(hash(sources));
+        if (Files.isDirectory(classes)) {
+            return classes;
+        }
+
+        Map<String, byte[]> bytecode = compileInMemory(submission.getFileName().toString(), sources);
+
+        // written to a temporary directory first, so a half written cache entry is never picked up
+        Files.createDirectories(cache);
+        Path incomplete = Files.createTempDirectory(cache, classes.getFileName() + ".");
+        for (Map.Entry<String, byte[]> cls : bytecode.entrySet()) {
+            Path file = incomplete.resolve(cls.getKey().replace('.', '/') + ".class");
+            Files.createDirectories(file.getParent());
+            Files.write(file, cls.getValue());
+        }
+        try {
+            Files.move(incomplete, classes, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileSystemException ex) {
+            // the same sources were compiled concurrently (e.g. two identical submissions); depending on the platform the
+            // move fails with FileAlreadyExistsException, DirectoryNotEmptyException or a plain FileSystemException
+            delete(incomplete);
+            if (!Files.isDirectory(classes)) {
+                throw ex;
+            }
+        }
+        return classes;
+    }
+
+    private static Map<String, String> readSources(Path submission) throws IOException {
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(submission)) {
+            files = walk.filter(SubmissionCompiler::isSource).collect(Collectors.toList());
+        }
+
+        // sorted, so the hash does not depend on the order in which the files are listed
+        Map<String, String> sources = new TreeMap<>();
+        for (Path file : files) {
+            String fileName = file.getFileName().toString();
+            String className = PACKAGE + '.' + fileName.substring(0, fileName.length() - ".java".length());
+            sources.put(className, rewritePackage(Files.readString(file, StandardCharsets.UTF_8)));
+        }
+        return sources;
+    }
+
+    static String rewritePackage(String source) {
+        Matcher declaration = PACKAGE_DECLARATION.matcher(source);
+        if (!declaration.find()) {
+            return "package " + PACKAGE + ";\n" + source;
+        }
+        String original = declaration.group(1);
+        String rewritten = declaration.replaceFirst(Matcher.quoteReplacement("package " + PACKAGE + ';'));
+        if (original.equals(PACKAGE)) {
+            return rewritten;
+        }
+        // imports between the submission's own classes, e.g. import static a12345678.Level.BEGINNER;
+        return rewritten.replaceAll("(import\\s+(?:static\\s+)?)" + Pattern.quote(original) + "\\.", "$1" + PACKAGE + '.');
+    }
+
+    private static String hash(Map<String, String> sources) {
+        MessageDigest digest = ClassBytes.sha256();
+        // a different compiler or different options produce different class files
+        digest.update(Runtime.version().toString().getBytes(StandardCharsets.UTF_8));
+        digest.update(String.join(" ", OPTIONS).getBytes(StandardCharsets.UTF_8));
+        for (Map.Entry<String, String> source : sources.entrySet()) {
+            digest.update((byte) 0);
+            digest.update(source.getKey().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(source.getValue().getBytes(StandardCharsets.UTF_8));
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static Map<String, byte[]> compileInMemory(String submission, Map<String, String> sources) throws IOException, CompilationFailed {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalStateException("No Java compiler available, submissions can only be compiled when running on a JDK");
+        }
+
+        List<JavaFileObject> units = new ArrayList<>();
+        for (Map.Entry<String, String> source : sources.entrySet()) {
+            units.add(new Source(source.getKey(), source.getValue()));
+        }
+
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        Map<String, byte[]> bytecode = new ConcurrentHashMap<>();
+        try (StandardJavaFileManager standard = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+            // an empty class path, otherwise a missing class would silently be taken from the engine's class path
+            standard.setLocation(StandardLocation.CLASS_PATH, List.of());
+            InMemoryFileManager fileManager = new InMemoryFileManager(standard, bytecode);
+
+            if (!compiler.getTask(null, fileManager, diagnostics, OPTIONS, null, units).call()) {
+                List<String> errors = diagnostics.getDiagnostics().stream()
+                    .filter(d -> d.getKind() == Diagnostic.Kind.ERROR)
+                    .map(d -> (d.getSource() == null ? "" : simpleName(d.getSource()) + ':' + d.getLineNumber() + ": ") + d.getMessage(null))
+                    .collect(Collectors.toList());
+                throw new CompilationFailed(submission, errors);
+            }
+        }
+        return bytecode;
+    }
+
+    private static String simpleName(JavaFileObject source) {
+        String path = source.toUri().getPath();
+        return path.substring(path.lastIndexOf('/') + 1);
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> walk = Files.walk(directory)) {
+            for (Path p : walk.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+
+    private static class Source extends SimpleJavaFileObject {
+        private final String code;
+
+        private Source(String className, String code) {
+            super(URI.create("string:///" + className.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+            this.code = code;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return code;
+        }
+    }
+
+    private static class ClassOutput extends SimpleJavaFileObject {
+        private final String className;
+        private final Map<String, byte[]> bytecode;
+
+        private ClassOutput(String className, Map<String, byte[]> bytecode) {
+            super(URI.create("bytes:///" + className.replace('.', '/') + Kind.CLASS.extension), Kind.CLASS);
+            this.className = className;
+            this.bytecode = bytecode;
+        }
+
+        @Override
+        public OutputStream openOutputStream() {
+            return new ByteArrayOutputStream() {
+                @Override
+                public void close() {
+                    bytecode.put(className, toByteArray());
+                }
+            };
+        }
+    }
+
+    private static class InMemoryFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+        private final Map<String, byte[]> bytecode;
+
+        private InMemoryFileManager(StandardJavaFileManager fileManager, Map<String, byte[]> bytecode) {
+            super(fileManager);
+            this.bytecode = bytecode;
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind, FileObject sibling) {
+            return new ClassOutput(className, bytecode);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package matrnr.batch;
+
+import matrnr.RunResults;
+import matrnr.TestResult;
+
+public class SubmissionResult {
+    private final String name;
+    private final RunResults results;
+    private final double coverage;
+    private final Throwable error;
+    private final long successes;
+    private final long failures;
+
+    SubmissionResult(String name, RunResults results, double coverage) {
+        this.name = name;
+        this.results = results;
+        this.coverage = coverage;
+        this.error = null;
+
+        // skipped tests count as failed here
+        successes = results.with(TestResult.Outcome.SUCCESS).size();
+        failures = results.size() - successes;
+    }
+
+    // the submission could not be loaded or graded at all, e.g. because a class is missing
+    SubmissionResult(String name, Throwable error) {
+        this.name = name;
+        this.results = null;
+        this.coverage = 0;
+        this.error = error;
+        this.successes = 0;
+        this.failures = 0;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public RunResults getResults() {
+        return results;
+    }
+
+    public Throwable getError() {
+        return error;
+    }
+
+    public boolean hasError() {
+        return error != null;
+    }
+
+    public long successes() {
+        return successes;
+    }
+
+    public long failures() {
+        return failures;
+    }
+
+    public double coverage() {
+        return coverage;
+    }
+
+    @Override
+    public String toString() {
+        return hasError()
+            ? name + ": ERROR " + error
+            : name + ": " + successes + " succeeded, " + failures + " failed";
+    }
+}
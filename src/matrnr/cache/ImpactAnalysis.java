@@ -0,0 +1,392 @@
+package matrnr.cache;
+
+import matrnr.Test;
+import matrnr.TestResult;
+import matrnr.utils.ClassBytes;
+import matrnr.utils.ClassFile;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.net.JarURLConnection;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+// selects the tests affected by the changes since the previous run. For every test it remembers a hash over the code
+// its result depends on: the test's own classes, and the code of every method and constructor of the tested package
+// that is reachable from the executables the test covers or calls itself. Tests that cover no specific executables
+// (e.g. the internal structure checks) depend on the field layout of the tested classes instead. Tests that failed
+// in the previous run are always selected again.
+public class ImpactAnalysis {
+    private static final int FORMAT_VERSION = 2;
+    private static final String CLASS_INITIALIZER = "<clinit>";
+    private static final String CLASS_SUFFIX = ".class";
+
+    private static final ClassValue<Optional<ClassFile>> CLASS_FILES = new ClassValue<>() {
+        @Override
+        protected Optional<ClassFile> computeValue(Class<?> type) {
+            try {
+                byte[] bytes = ClassBytes.read(type);
+                return bytes == null ? Optional.empty() : Optional.of(ClassFile.parse(bytes));
+            } catch (IOException ex) {
+                return Optional.empty();
+            }
+        }
+    };
+
+    private static class Entry {
+        private final String hash;
+        private final TestResult result;
+
+        private Entry(String hash, TestResult result) {
+            this.hash = hash;
+            this.result = result;
+        }
+    }
+
+    private final Path snapshot;
+    private final Map<String, Entry> previous = new ConcurrentHashMap<>();
+    private final Map<String, Entry> current = new ConcurrentHashMap<>();
+
+    public ImpactAnalysis(Path snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    public Path getSnapshot() {
+        return snapshot;
+    }
+
+    // reads the snapshot of the previous run, without one every test is affected
+    public void load() throws IOException {
+        previous.clear();
+        current.clear();
+        if (!Files.isRegularFile(snapshot)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshot)))) {
+            if (in.readInt() != FORMAT_VERSION) {
+                return;
+            }
+            int entries = in.readInt();
+            for (int i = 0; i < entries; i++) {
+                String name = ResultCodec.readString(in);
+                String hash = ResultCodec.readString(in);
+                previous.put(name, new Entry(hash, ResultCodec.read(in)));
+            }
+        }
+    }
+
+    // tests that did not take part in this run keep their entries
+    public void save() throws IOException {
+        Map<String, Entry> merged = new TreeMap<>(previous);
+        merged.putAll(current);
+
+        Path directory = snapshot.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path incomplete = Files.createTempFile(directory, snapshot.getFileName().toString(), ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(incomplete)))) {
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(merged.size());
+            for (Map.Entry<String, Entry> e : merged.entrySet()) {
+                ResultCodec.writeString(out, e.getKey());
+                ResultCodec.writeString(out, e.getValue().hash);
+                ResultCodec.write(out, e.getValue().result);
+            }
+        }
+        Files.move(incomplete, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public boolean isAffected(Test t) {
+        return previousResult(t) == null;
+    }
+
+    // the result of the previous run if nothing the test depends on changed since then, null otherwise
+    public TestResult previousResult(Test t) {
+        Entry entry = previous.get(t.getName());
+        if (entry == null || !entry.result.successful() || !entry.hash.equals(impactHash(t))) {
+            return null;
+        }
+        return entry.result;
+    }
+
+    public Set<Test> select(Collection<Test> tests) {
+        Set<Test> affected = new LinkedHashSet<>();
+        for (Test t : tests) {
+            if (isAffected(t)) {
+                affected.add(t);
+            }
+        }
+        return affected;
+    }
+
+    public void record(Test t, TestResult result) {
+        current.put(t.getName(), new Entry(impactHash(t), result));
+    }
+
+    private static ClassFile classFile(Class<?> cls) {
+        return CLASS_FILES.get(cls).orElse(null);
+    }
+
+    private static ClassFile.Member member(Method m) {
+        return new ClassFile.Member(
+            m.getDeclaringClass().getName(),
+            m.getName(),
+            MethodType.methodType(m.getReturnType(), m.getParameterTypes()).toMethodDescriptorString()
+        );
+    }
+
+    private static ClassFile.Member member(Constructor<?> c) {
+        return new ClassFile.Member(
+            c.getDeclaringClass().getName(),
+            "<init>",
+            MethodType.methodType(void.class, c.getParameterTypes()).toMethodDescriptorString()
+        );
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    public String impactHash(Test t) {
+        MessageDigest digest = ClassBytes.sha256();
+        update(digest, t.getName());
+        for (Class<?> c = t.getClass(); !Test.class.equals(c); c = c.getSuperclass()) {
+            update(digest, ClassBytes.hash(c));
+        }
+
+        Scope scope = new Scope(t.getTestClasses());
+        Set<ClassFile.Member> roots = new LinkedHashSet<>();
+        for (Method m : t.coveredMethods()) {
+            roots.add(member(m));
+        }
+        for (Constructor<?> c : t.coveredConstructors()) {
+            roots.add(member(c));
+        }
+
+        if (roots.isEmpty()) {
+            for (Class<?> c : scope.testClasses()) {
+                ClassFile cf = classFile(c);
+                update(digest, c.getName());
+                update(digest, cf == null ? ClassBytes.hash(c) : cf.getLayoutHash());
+            }
+        }
+
+        // what the test calls itself, e.g. a contract test calling 'learn' to prepare the member it checks
+        for (Class<?> c = t.getClass(); !Test.class.equals(c); c = c.getSuperclass()) {
+            for (Class<?> nested : c.getNestMembers()) {
+                ClassFile cf = classFile(nested);
+                if (cf != null) {
+                    for (ClassFile.MethodInfo info : cf.getMethods().values()) {
+                        for (ClassFile.Member call : info.getCalls()) {
+                            if (scope.contains(call.getOwner())) {
+                                roots.add(call);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        for (Map.Entry<String, String> reached : scope.reachable(roots).entrySet()) {
+            update(digest, reached.getKey());
+            update(digest, reached.getValue());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    // the packages of the tested classes, resolved through the class loader of the tested classes
+    private static class Scope {
+        private final Set<Class<?>> testClasses;
+        private final Set<String> packages = new HashSet<>();
+        private final ClassLoader loader;
+        private final Map<String, Optional<Class<?>>> resolved = new HashMap<>();
+        private Set<String> packageClasses;
+
+        private Scope(Set<Class<?>> testClasses) {
+            this.testClasses = testClasses;
+            ClassLoader first = null;
+            for (Class<?> c : testClasses) {
+                packages.add(c.getPackageName());
+                first = first == null ? c.getClassLoader() : first;
+            }
+            loader = first;
+        }
+
+        private Set<Class<?>> testClasses() {
+            Map<String, Class<?>> sorted = new TreeMap<>();
+            for (Class<?> c : testClasses) {
+                sorted.put(c.getName(), c);
+            }
+            return new LinkedHashSet<>(sorted.values());
+        }
+
+        private boolean contains(String className) {
+            int dot = className.lastIndexOf('.');
+            return packages.contains(dot < 0 ? "" : className.substring(0, dot));
+        }
+
+        private Class<?> resolve(String className) {
+            return resolved.computeIfAbsent(className, name -> {
+                try {
+                    return Optional.of(Class.forName(name, false, loader));
+                } catch (ClassNotFoundException | LinkageError ex) {
+                    return Optional.empty();
+                }
+            }).orElse(null);
+        }
+
+        // "owner.name descriptor" -> hash of the code, for every executable that can run on behalf of the roots
+        private Map<String, String> reachable(Set<ClassFile.Member> roots) {
+            Map<String, String> reached = new TreeMap<>();
+            Deque<ClassFile.Member> pending = new ArrayDeque<>(roots);
+            Set<ClassFile.Member> seen = new HashSet<>();
+            // signature -> classes it was reached on
+            Map<String, Set<Class<?>>> seenSignatures = new HashMap<>();
+            Set<String> knownClasses = new LinkedHashSet<>();
+
+            do {
+                while (!pending.isEmpty()) {
+                    ClassFile.Member m = pending.poll();
+                    if (!contains(m.getOwner()) || !seen.add(m)) {
+                        continue;
+                    }
+                    Class<?> owner = resolve(m.getOwner());
+                    ClassFile cf = owner == null ? null : classFile(owner);
+                    if (cf == null) {
+                        // missing classes make the test fail, which selects it again anyway
+                        reached.put(m.toString(), "unavailable");
+                        continue;
+                    }
+                    if (knownClasses.add(m.getOwner())) {
+                        // runs before anything of the class is used
+                        pending.add(new ClassFile.Member(m.getOwner(), CLASS_INITIALIZER, "()V"));
+                    }
+                    seenSignatures.computeIfAbsent(m.signature(), sig -> new HashSet<>()).add(owner);
+
+                    ClassFile.MethodInfo info = cf.getMethods().get(m.signature());
+                    if (info == null) {
+                        // inherited
+                        if (cf.getSuperName() != null && !m.getName().startsWith("<")) {
+                            pending.add(new ClassFile.Member(cf.getSuperName(), m.getName(), m.getDescriptor()));
+                        }
+                        continue;
+                    }
+                    reached.put(m.toString(), info.getHash());
+                    pending.addAll(info.getCalls());
+                }
+
+                // virtual calls can end up in overrides, e.g. Trainer.getBillableSports for Member.getBillableSports,
+                // also in subclasses that nothing refers to by name, so every class of the tested packages is checked
+                for (String className : packageClasses()) {
+                    Class<?> cls = resolve(className);
+                    ClassFile cf = cls == null ? null : classFile(cls);
+                    if (cf == null) {
+                        continue;
+                    }
+                    for (String signature : cf.getMethods().keySet()) {
+                        if (!signature.startsWith("<") && overrides(cls, seenSignatures.get(signature))) {
+                            int descriptor = signature.indexOf('(');
+                            ClassFile.Member override = new ClassFile.Member(className, signature.substring(0, descriptor), signature.substring(descriptor));
+                            if (!seen.contains(override)) {
+                                pending.add(override);
+                            }
+                        }
+                    }
+                }
+            } while (!pending.isEmpty());
+
+            return reached;
+        }
+
+        private static boolean overrides(Class<?> cls, Set<Class<?>> owners) {
+            if (owners == null) {
+                return false;
+            }
+            for (Class<?> owner : owners) {
+                if (owner != cls && owner.isAssignableFrom(cls)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // the class files of the tested packages the loader can see, in every directory or jar it finds them in
+        private Set<String> packageClasses() {
+            if (packageClasses != null) {
+                return packageClasses;
+            }
+            packageClasses = new TreeSet<>();
+            for (String pkg : packages) {
+                String directory = pkg.replace('.', '/');
+                try {
+                    Enumeration<URL> locations = loader == null
+                        ? ClassLoader.getSystemResources(directory)
+                        : loader.getResources(directory);
+                    while (locations.hasMoreElements()) {
+                        listClasses(locations.nextElement(), pkg, directory);
+                    }
+                } catch (IOException ex) {
+                    // the classes reached by name are still covered
+                }
+            }
+            return packageClasses;
+        }
+
+        private void listClasses(URL location, String pkg, String directory) throws IOException {
+            String prefix = pkg.isEmpty() ? "" : pkg + '.';
+            if ("file".equals(location.getProtocol())) {
+                try (Stream<Path> files = Files.list(Path.of(URI.create(location.toString())))) {
+                    files.map(file -> file.getFileName().toString())
+                        .filter(name -> name.endsWith(CLASS_SUFFIX))
+                        .forEach(name -> packageClasses.add(prefix + name.substring(0, name.length() - CLASS_SUFFIX.length())));
+                } catch (IllegalArgumentException ex) {
+                    // not a plain directory
+                }
+            } else if ("jar".equals(location.getProtocol())) {
+                URLConnection connection = location.openConnection();
+                // an uncached jar file can be closed without breaking the class loader that uses the same jar
+                connection.setUseCaches(false);
+                if (connection instanceof JarURLConnection) {
+                    try (JarFile jar = ((JarURLConnection) connection).getJarFile()) {
+                        for (JarEntry entry : Collections.list(jar.entries())) {
+                            String name = entry.getName();
+                            if (name.startsWith(directory + '/') && name.endsWith(CLASS_SUFFIX) && name.indexOf('/', directory.length() + 1) < 0) {
+                                packageClasses.add(prefix + name.substring(directory.length() + 1, name.length() - CLASS_SUFFIX.length()));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package matrnr.cache;
+
+import matrnr.Test;
+import matrnr.TestResult;
+import matrnr.TestSuite;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// keeps which tests have a result and where it is, V is whatever the store needs to get the result back
+abstract class IndexedResultStore<V> implements ResultStore {
+    private final Map<TestSuite, Map<Test, V>> suites = new ConcurrentHashMap<>();
+    private final Map<Test, V> isolated = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    abstract V write(TestResult result);
+
+    abstract TestResult read(V stored);
+
+    private Map<Test, V> index(TestSuite suite) {
+        return suite == null ? isolated : suites.computeIfAbsent(suite, ts -> new ConcurrentHashMap<>());
+    }
+
+    @Override
+    public void put(TestSuite suite, Test test, TestResult result) {
+        if (index(suite).put(test, write(result)) == null) {
+            size.incrementAndGet();
+        }
+    }
+
+    @Override
+    public TestResult get(TestSuite suite, Test test) {
+        Map<Test, V> index = suite == null ? isolated : suites.get(suite);
+        V stored = index == null ? null : index.get(test);
+        return stored == null ? null : read(stored);
+    }
+
+    @Override
+    public Set<Test> tests(TestSuite suite) {
+        Map<Test, V> index = suite == null ? isolated : suites.get(suite);
+        return index == null ? Set.of() : Collections.unmodifiableSet(index.keySet());
+    }
+
+    @Override
+    public Set<TestSuite> suites() {
+        return Collections.unmodifiableSet(suites.keySet());
+    }
+
+    @Override
+    public int size() {
+        return size.get();
+    }
+}
@@ -0,0 +1,132 @@
+package matrnr.cache;
+
+import matrnr.TestMetrics;
+import matrnr.TestResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// results are appended to a file that is mapped in chunks, the heap only holds the position of each result.
+// A record is its length followed by outcome, cached flag, wall time, CPU time, allocated bytes and the ResultCodec
+// fields; a record never spans two chunks, the rest of a chunk it does not fit into stays unused
+class MappedResultStore extends IndexedResultStore<Long> {
+    private static final int CHUNK_SIZE = 4 * 1024 * 1024;
+    private static final TestResult.Outcome[] OUTCOMES = TestResult.Outcome.values();
+
+    private final Path file;
+    private final FileChannel channel;
+    private final List<MappedByteBuffer> chunks = new CopyOnWriteArrayList<>();
+    private MappedByteBuffer current;
+    private long mappedEnd;
+    private boolean closed;
+
+    MappedResultStore(Path file) {
+        this.file = file;
+        try {
+            // a new file instead of truncating the old one, whose mapping may still be read through an older store
+            Files.deleteIfExists(file);
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not create the result store " + file, ex);
+        }
+    }
+
+    // chunk index in the upper, offset in the chunk in the lower half
+    @Override
+    synchronized Long write(TestResult result) {
+        if (closed) {
+            throw new IllegalStateException("The result store " + file + " is closed");
+        }
+        byte[] record = encode(result);
+        int size = Integer.BYTES + record.length;
+        if (current == null || current.remaining() < size) {
+            map(Math.max(CHUNK_SIZE, size));
+        }
+        long position = ((long) (chunks.size() - 1) << 32) | current.position();
+        current.putInt(record.length)
+            .put(record);
+        return position;
+    }
+
+    private void map(int size) {
+        try {
+            current = channel.map(FileChannel.MapMode.READ_WRITE, mappedEnd, size);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not grow the result store " + file, ex);
+        }
+        mappedEnd += size;
+        chunks.add(current);
+    }
+
+    @Override
+    TestResult read(Long position) {
+        MappedByteBuffer chunk = chunks.get((int) (position >>> 32));
+        int offset = (int) (long) position;
+        byte[] record = new byte[chunk.getInt(offset)];
+        chunk.get(offset + Integer.BYTES, record);
+        try {
+            return decode(new DataInputStream(new ByteArrayInputStream(record)));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Damaged record in the result store " + file, ex);
+        }
+    }
+
+    private static byte[] encode(TestResult result) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(result.getOutcome().ordinal());
+            out.writeBoolean(result.isCached());
+            TestMetrics metrics = result.getMetrics();
+            out.writeLong(metrics.getWallNanos());
+            out.writeLong(metrics.getCpuNanos());
+            out.writeLong(metrics.getAllocatedBytes());
+            ResultCodec.write(out, result);
+        } catch (IOException ex) {
+            // ByteArrayOutputStream does not throw
+            throw new UncheckedIOException(ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static TestResult decode(DataInputStream in) throws IOException {
+        TestResult.Outcome outcome = OUTCOMES[in.readByte()];
+        boolean cached = in.readBoolean();
+        TestMetrics metrics = new TestMetrics(in.readLong(), in.readLong(), in.readLong());
+        return ResultCodec.readBuilder(in)
+            .outcome(outcome)
+            .cached(cached)
+            .metrics(metrics.isKnown() ? metrics : TestMetrics.UNKNOWN)
+            .build();
+    }
+
+    // the mappings stay valid after the channel is closed; the unused end of the last chunk is cut off
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            long used = current == null ? 0 : mappedEnd - current.remaining();
+            channel.truncate(used);
+            channel.close();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not close the result store " + file, ex);
+        }
+    }
+}
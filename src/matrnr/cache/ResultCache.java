@@ -0,0 +1,89 @@
+package matrnr.cache;
+
+import matrnr.Test;
+import matrnr.TestResult;
+import matrnr.utils.ClassBytes;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+
+// one file per result, named after a hash of everything the result depends on: the name of the test, the class files
+// of the test itself and the class files of the classes it tests, including the classes of their package they use
+public class ResultCache {
+    private static final int FORMAT_VERSION = 2;
+    private static final String SUFFIX = ".result";
+
+    private final Path directory;
+
+    public ResultCache(Path directory) {
+        this.directory = directory;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public String key(Test t) {
+        MessageDigest digest = ClassBytes.sha256();
+        update(digest, t.getName());
+        // the logic of e.g. the null checks lives in the abstract base classes
+        for (Class<?> c = t.getClass(); !Test.class.equals(c); c = c.getSuperclass()) {
+            update(digest, ClassBytes.hash(c));
+        }
+
+        List<Class<?>> tested = new ArrayList<>(t.getTestClasses());
+        tested.sort(Comparator.comparing(Class::getName));
+        for (Class<?> c : tested) {
+            update(digest, c.getName());
+            update(digest, ClassBytes.dependencyHash(c));
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    // null if there is no result for the current state of the test and the tested classes
+    public TestResult lookup(Test t) {
+        Path file = directory.resolve(key(t) + SUFFIX);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != FORMAT_VERSION) {
+                return null;
+            }
+            return ResultCodec.read(in);
+        } catch (IOException ex) {
+            // missing, or damaged and overwritten by the next run
+            return null;
+        }
+    }
+
+    public void store(Test t, TestResult result) {
+        Path file = directory.resolve(key(t) + SUFFIX);
+        try {
+            Files.createDirectories(directory);
+            Path incomplete = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(incomplete)))) {
+                out.writeInt(FORMAT_VERSION);
+                ResultCodec.write(out, result);
+            }
+            Files.move(incomplete, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not cache the result of '" + t.getName() + "' in " + directory, ex);
+        }
+    }
+}
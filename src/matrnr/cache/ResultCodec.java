@@ -0,0 +1,118 @@
+package matrnr.cache;
+
+import matrnr.TestResult;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// results are stored in their rendered form, so exceptions and tested objects come back as their toString()s
+class ResultCodec {
+    private ResultCodec() {
+    }
+
+    static void write(DataOutputStream out, TestResult result) throws IOException {
+        out.writeBoolean(result.successful());
+        writeStrings(out, result.getUnexpectedExceptions());
+        writeStrings(out, result.getExpectedExceptions());
+        writeNotes(out, result.getNoteList());
+        writeStrings(out, result.getTestedObj());
+    }
+
+    static TestResult read(DataInputStream in) throws IOException {
+        return readBuilder(in)
+            .cached(true)
+            .build();
+    }
+
+    static TestResult.Builder readBuilder(DataInputStream in) throws IOException {
+        TestResult.Builder result = TestResult.builder()
+            .result(in.readBoolean())
+            .unexpectedExceptions(readRecorded(in))
+            .expectedExceptions(readRecorded(in));
+        readNotes(in, result);
+        return result.testedObjects(new ArrayList<>(readStrings(in)));
+    }
+
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        // writeUTF is limited to 64 KiB, notes and object dumps can be longer than that
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // the check ids survive, the messages are stored rendered
+    private static void writeNotes(DataOutputStream out, List<TestResult.Note> notes) throws IOException {
+        out.writeInt(notes.size());
+        for (TestResult.Note note : notes) {
+            out.writeBoolean(note.isFreeText());
+            if (!note.isFreeText()) {
+                writeString(out, note.getCheck());
+            }
+            writeString(out, note.getMessage());
+        }
+    }
+
+    private static void readNotes(DataInputStream in, TestResult.Builder result) throws IOException {
+        int size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            if (in.readBoolean()) {
+                result.appendNote(readString(in));
+            } else {
+                String check = readString(in);
+                result.note(check, readString(in));
+            }
+        }
+    }
+
+    private static void writeStrings(DataOutputStream out, Collection<?> values) throws IOException {
+        out.writeInt(values.size());
+        for (Object value : values) {
+            writeString(out, String.valueOf(value));
+        }
+    }
+
+    private static List<String> readStrings(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(readString(in));
+        }
+        return values;
+    }
+
+    private static List<Throwable> readRecorded(DataInputStream in) throws IOException {
+        List<Throwable> recorded = new ArrayList<>();
+        for (String rendered : readStrings(in)) {
+            recorded.add(new Recorded(rendered));
+        }
+        return recorded;
+    }
+
+    // stands in for an exception of a cached result, it only knows what the original printed
+    private static class Recorded extends Throwable {
+        private static final long serialVersionUID = 1L;
+
+        private final String rendered;
+
+        private Recorded(String rendered) {
+            super(rendered, null, false, false);
+            this.rendered = rendered;
+        }
+
+        @Override
+        public String toString() {
+            return rendered;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package matrnr.cache;
+
+import matrnr.Test;
+import matrnr.TestResult;
+import matrnr.TestSuite;
+
+import java.io.Closeable;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+
+// the results of one run; the suite is null for isolated tests. Results can be added from several threads at once
+public interface ResultStore extends Closeable {
+    @FunctionalInterface
+    interface Visitor {
+        void visit(TestSuite suite, Test test, TestResult result);
+    }
+
+    void put(TestSuite suite, Test test, TestResult result);
+
+    // null if the test has no result (yet)
+    TestResult get(TestSuite suite, Test test);
+
+    Set<Test> tests(TestSuite suite);
+
+    Set<TestSuite> suites();
+
+    int size();
+
+    default void forEach(Visitor visitor) {
+        for (TestSuite suite : suites()) {
+            for (Test test : tests(suite)) {
+                visitor.visit(suite, test, get(suite, test));
+            }
+        }
+        for (Test test : tests(null)) {
+            visitor.visit(null, test, get(null, test));
+        }
+    }
+
+    // a read-only map that reads through the store, it does not hold any results itself
+    default Map<Test, TestResult> view(TestSuite suite) {
+        return new StoreView(this, suite);
+    }
+
+    // no more results are added, the stored ones stay readable
+    @Override
+    void close();
+
+    static ResultStore inMemory() {
+        return new InMemoryResultStore();
+    }
+
+    // replaces the file if it exists
+    static ResultStore mapped(Path file) {
+        return new MappedResultStore(file);
+    }
+}
@@ -0,0 +1,69 @@
+package matrnr.cache;
+
+import matrnr.Test;
+import matrnr.TestResult;
+import matrnr.TestSuite;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+// every access decodes the result again, callers that need a result more than once should keep it
+class StoreView extends AbstractMap<Test, TestResult> {
+    private final ResultStore store;
+    private final TestSuite suite;
+
+    StoreView(ResultStore store, TestSuite suite) {
+        this.store = store;
+        this.suite = suite;
+    }
+
+    @Override
+    public TestResult get(Object key) {
+        return key instanceof Test ? store.get(suite, (Test) key) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return store.tests(suite).contains(key);
+    }
+
+    @Override
+    public int size() {
+        return store.tests(suite).size();
+    }
+
+    @Override
+    public Set<Test> keySet() {
+        return store.tests(suite);
+    }
+
+    @Override
+    public Set<Entry<Test, TestResult>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<Test, TestResult>> iterator() {
+                Iterator<Test> tests = store.tests(suite).iterator();
+                return new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return tests.hasNext();
+                    }
+
+                    @Override
+                    public Entry<Test, TestResult> next() {
+                        Test t = tests.next();
+                        return Map.entry(t, store.get(suite, t));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return StoreView.this.size();
+            }
+        };
+    }
+}
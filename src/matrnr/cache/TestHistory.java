@@ -0,0 +1,96 @@
+package matrnr.cache;
+
+import matrnr.Test;
+import matrnr.TestResult;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+// outcome and duration of the last execution of every test, kept in memory only if there is no file
+public class TestHistory {
+    private static final int FORMAT_VERSION = 1;
+
+    public static class Entry {
+        private final boolean failed;
+        private final long durationNanos;
+
+        private Entry(boolean failed, long durationNanos) {
+            this.failed = failed;
+            this.durationNanos = durationNanos;
+        }
+
+        public boolean failed() {
+            return failed;
+        }
+
+        public long durationNanos() {
+            return durationNanos;
+        }
+    }
+
+    private final Path file;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public TestHistory(Path file) {
+        this.file = file; // nullable
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    // null if the test was never executed
+    public Entry get(Test t) {
+        return entries.get(t.getName());
+    }
+
+    public void record(Test t, TestResult result, long durationNanos) {
+        entries.put(t.getName(), new Entry(!result.successful(), durationNanos));
+    }
+
+    public void load() throws IOException {
+        if (file == null || !Files.isRegularFile(file)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != FORMAT_VERSION) {
+                return;
+            }
+            entries.clear();
+            int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                String name = ResultCodec.readString(in);
+                entries.put(name, new Entry(in.readBoolean(), in.readLong()));
+            }
+        }
+    }
+
+    public void save() throws IOException {
+        if (file == null) {
+            return;
+        }
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path incomplete = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(incomplete)))) {
+            Map<String, Entry> sorted = new TreeMap<>(entries);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(sorted.size());
+            for (Map.Entry<String, Entry> e : sorted.entrySet()) {
+                ResultCodec.writeString(out, e.getKey());
+                out.writeBoolean(e.getValue().failed);
+                out.writeLong(e.getValue().durationNanos);
+            }
+        }
+        Files.move(incomplete, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,131 @@
+package matrnr.events;
+
+import matrnr.Test;
+import matrnr.TestEngine;
+import matrnr.TestResult;
+import matrnr.TestSuite;
+import matrnr.utils.ChannelWriter;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+public class FullOutputReporter extends TestEventSubscriber {
+    private static final String SYS_NEWLINE = System.lineSeparator();
+
+    private final TestEngine engine;
+    private final Path path;
+    private final Duration flushInterval;
+    private ChannelWriter writer;
+
+    public FullOutputReporter(TestEngine engine, Path fullOutput, Duration forceInterval) {
+        this.engine = engine;
+        path = fullOutput;
+        flushInterval = forceInterval;
+    }
+
+    private static String newline() {
+        return SYS_NEWLINE;
+    }
+
+    private static String newlines(int n) {
+        return String.valueOf(SYS_NEWLINE).repeat(n);
+    }
+
+    private void fail(IOException ex) {
+        System.err.println("Could not write full output to defined path '" + path + "', exception: " + ex);
+        close();
+    }
+
+    private void close() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException ex) {
+                System.err.println("Could not close full output file '" + path + "', exception: " + ex);
+            }
+            writer = null;
+        }
+    }
+
+    @Override
+    protected void runStarted(int plannedTests) {
+        try {
+            writer = new ChannelWriter(path, flushInterval);
+            writer.append("==== TEST RESULTS ====")
+                .append(newline());
+            writer.flush();
+        } catch (IOException ex) {
+            fail(ex);
+        }
+    }
+
+    @Override
+    protected void testFinished(TestSuite suite, Test test, TestResult result) {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.append(newline())
+                .append('(')
+                .append(suite == null ? "isolated" : suite.getName())
+                .append(") ")
+                .append(test.getName())
+                .append(':')
+                .append(newline());
+            result.appendTo(writer);
+            // every finished test reaches the file right away, so a crashed run leaves everything up to here readable
+            writer.flush();
+        } catch (IOException ex) {
+            fail(ex);
+        }
+    }
+
+    @Override
+    protected void runFinished() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.append(newlines(3))
+                .append("==== OVERVIEW OF TEST SUITES AND TESTS ====")
+                .append(newline());
+            for (TestSuite ts : engine.getSuites()) {
+                writer.append(ts.toString())
+                    .append(newline())
+                    .append("Test details:");
+                for (Test t : ts.getTests()) {
+                    writer.append(newline());
+                    t.appendTo(writer);
+                }
+                writer.append(newlines(2));
+            }
+
+            if (!engine.getIsolatedTests().isEmpty()) {
+                writer.append("Isolated Tests:");
+                for (Test t : engine.getIsolatedTests()) {
+                    writer.append(newline());
+                    t.appendTo(writer);
+                }
+            }
+        } catch (IOException ex) {
+            fail(ex);
+        }
+        close();
+    }
+
+    @Override
+    protected void runAborted(Throwable cause) {
+        if (writer != null) {
+            try {
+                writer.append(newlines(3))
+                    .append("==== RUN ABORTED, RESULTS ABOVE ARE INCOMPLETE ====")
+                    .append(newline())
+                    .append(String.valueOf(cause));
+            } catch (IOException ex) {
+                fail(ex);
+            }
+        }
+        close();
+    }
+}
@@ -0,0 +1,60 @@
+package matrnr.events;
+
+import matrnr.Test;
+import matrnr.TestResult;
+import matrnr.TestSuite;
+import matrnr.metrics.MetricsRegistry;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+// rewrites the metrics file while the run goes on, at most once per interval, and once more when it ends
+public class MetricsFileReporter extends TestEventSubscriber {
+    private final MetricsRegistry registry;
+    private final Path path;
+    private final long intervalNanos;
+    private long lastWrite;
+    private boolean failed;
+
+    public MetricsFileReporter(MetricsRegistry metrics, Path metricsFile, Duration writeInterval) {
+        registry = metrics;
+        path = metricsFile;
+        intervalNanos = writeInterval.toNanos();
+    }
+
+    private void write() {
+        if (failed) {
+            return;
+        }
+        try {
+            registry.writeTo(path);
+            lastWrite = System.nanoTime();
+        } catch (IOException ex) {
+            System.err.println("Could not write metrics to defined path '" + path + "', exception: " + ex);
+            failed = true;
+        }
+    }
+
+    @Override
+    protected void runStarted(int plannedTests) {
+        write();
+    }
+
+    @Override
+    protected void testFinished(TestSuite suite, Test test, TestResult result) {
+        if (System.nanoTime() - lastWrite >= intervalNanos) {
+            write();
+        }
+    }
+
+    @Override
+    protected void runFinished() {
+        write();
+    }
+
+    @Override
+    protected void runAborted(Throwable cause) {
+        write();
+    }
+}
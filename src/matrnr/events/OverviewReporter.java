@@ -0,0 +1,225 @@
+package matrnr.events;
+
+import matrnr.Test;
+import matrnr.TestEngine;
+import matrnr.TestMetrics;
+import matrnr.TestResult;
+import matrnr.TestSuite;
+import matrnr.utils.TablePrinter;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.LongFunction;
+import java.util.function.ToLongFunction;
+
+public class OverviewReporter extends TestEventSubscriber {
+    private static final int REPORT_WIDTH = 79;
+    private static final int REPORT_PADDING = 34;
+    private static final int CACHED_REPORT_PADDING = 22;
+    private static final int STATS_PADDING = 25;
+    private static final int[] DETAIL_PADDING = {19, 9, 9, 9, 9};
+    private static final int[] CACHED_DETAIL_PADDING = {19, 9, 9, 8, 9, 9};
+    private static final String ISOLATED = "isolated tests";
+
+    private final TestEngine engine;
+    private final PrintStream out;
+    private final TablePrinter printer;
+    private final ProgressLine progress;
+    // [0] = successes, [1] = failures, [2] = served from the result cache,
+    // [3] = wall time, [4] = CPU time (both nanoseconds), [5] = allocated bytes of the measured tests
+    private final Map<String, long[]> suiteCounters = new LinkedHashMap<>();
+    private final List<String> failedTests = new ArrayList<>();
+    private long totalSuccesses;
+    private long totalFailures;
+    private long totalCached;
+    private long totalSkipped;
+    private int plannedTests;
+
+    public OverviewReporter(TestEngine engine, PrintStream output) {
+        this.engine = engine;
+        out = output;
+        printer = new TablePrinter(output);
+        progress = engine.showsProgress() ? new ProgressLine(engine, output) : null;
+    }
+
+    @Override
+    protected void runStarted(int plannedTests) {
+        this.plannedTests = plannedTests;
+        for (TestSuite ts : engine.getSuites()) {
+            suiteCounters.put(ts.getName(), new long[6]);
+        }
+        suiteCounters.put(ISOLATED, new long[6]);
+        if (progress != null) {
+            progress.start(plannedTests);
+        }
+    }
+
+    @Override
+    protected void testStarted(TestSuite suite, Test test) {
+        if (progress != null) {
+            progress.testStarted(suite);
+        }
+    }
+
+    @Override
+    protected void testFinished(TestSuite suite, Test test, TestResult result) {
+        long[] counters = suiteCounters.computeIfAbsent(suite == null ? ISOLATED : suite.getName(), name -> new long[6]);
+        if (result.successful()) {
+            counters[0]++;
+            totalSuccesses++;
+        } else if (result.isSkipped()) {
+            // neither a success nor a failure, skips only show up in the stats
+            totalSkipped++;
+        } else {
+            counters[1]++;
+            totalFailures++;
+            failedTests.add(test.getName());
+        }
+        if (result.isCached()) {
+            counters[2]++;
+            totalCached++;
+        }
+        TestMetrics metrics = result.getMetrics();
+        if (metrics.isKnown()) {
+            counters[3] += metrics.getWallNanos();
+            counters[4] += Math.max(metrics.getCpuNanos(), 0);
+            counters[5] += Math.max(metrics.getAllocatedBytes(), 0);
+        }
+        if (progress != null) {
+            progress.testFinished(test, result);
+        }
+    }
+
+    @Override
+    protected void runAborted(Throwable cause) {
+        if (progress != null) {
+            progress.close();
+        }
+    }
+
+    // the cached column is only shown when the engine can reuse results of earlier runs
+    private String[] row(String first, String second, String third, String cached) {
+        return !engine.reusesResults()
+            ? new String[]{first, second, third}
+            : new String[]{first, second, third, cached};
+    }
+
+    private int padding() {
+        return engine.reusesResults() ? CACHED_REPORT_PADDING : REPORT_PADDING;
+    }
+
+    private String[] counterRow(String name, long successes, long failures, long cached) {
+        return row(name, Long.toString(successes), Long.toString(failures), Long.toString(cached));
+    }
+
+    private String[] detailRow(String first, String second, String third, String cached, String wall, String cpu, String allocated) {
+        return !engine.reusesResults()
+            ? new String[]{first, second, third, wall, cpu, allocated}
+            : new String[]{first, second, third, cached, wall, cpu, allocated};
+    }
+
+    private int[] detailPadding() {
+        return engine.reusesResults() ? CACHED_DETAIL_PADDING : DETAIL_PADDING;
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1_000_000.0);
+    }
+
+    private static String mebibytes(long bytes) {
+        return String.format(Locale.ROOT, "%.2f", bytes / (1024.0 * 1024.0));
+    }
+
+    // nearest rank, over the tests that were measured
+    private static long percentile(long[] sorted, int percent) {
+        int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+        return sorted[Math.max(rank, 1) - 1];
+    }
+
+    private void printDistribution(List<TestMetrics> measured, String label, ToLongFunction<TestMetrics> value, LongFunction<String> format) {
+        long[] sorted = measured.stream()
+            .mapToLong(value)
+            .filter(v -> v >= 0)
+            .sorted()
+            .toArray();
+        if (sorted.length == 0) {
+            return;
+        }
+        long total = 0;
+        for (long v : sorted) {
+            total += v;
+        }
+        printer.printTableRow(STATS_PADDING, "Total " + label + ':', format.apply(total))
+            .printTableRow(STATS_PADDING, label.substring(0, 1).toUpperCase(Locale.ROOT) + label.substring(1) + " p50/p90/p99:",
+                format.apply(percentile(sorted, 50)) + " / " + format.apply(percentile(sorted, 90)) + " / " + format.apply(percentile(sorted, 99)));
+    }
+
+    @Override
+    protected void runFinished() {
+        if (progress != null) {
+            progress.close();
+        }
+        long totalTests = totalSuccesses + totalFailures + totalSkipped;
+        int padding = padding();
+
+        printer.printHeading(REPORT_WIDTH, "PERFORMED TEST ROUTINE, RESULTS BELOW")
+            .printHeading(REPORT_WIDTH, "OVERVIEW")
+            .printTableRow(padding, row("[Suite]", "[SUCCESS]", "[FAILURE]", "[CACHED]"))
+            .printEmptyLine()
+            .printTableRow(padding, counterRow("total", totalSuccesses, totalFailures, totalCached))
+            .printHeading(REPORT_WIDTH, "DETAIL REPORT")
+            .printTableRow(detailPadding(), detailRow("[Suite]", "[SUCCESS]", "[FAILURE]", "[CACHED]", "[WALL ms]", "[CPU ms]", "[ALLOC MiB]"))
+            .printEmptyLine();
+        for (Map.Entry<String, long[]> suiteCounter : suiteCounters.entrySet()) {
+            long[] c = suiteCounter.getValue();
+            printer.printTableRow(detailPadding(), detailRow(
+                suiteCounter.getKey(),
+                Long.toString(c[0]),
+                Long.toString(c[1]),
+                Long.toString(c[2]),
+                millis(c[3]),
+                millis(c[4]),
+                mebibytes(c[5])
+            ));
+        }
+        printer.printHeading(REPORT_WIDTH, "STATS")
+            .printEmptyLine()
+            .printTableRow(STATS_PADDING, "Total tests performed:", Long.toString(totalTests))
+            .printTableRow(STATS_PADDING, "Total succeeded (%):", Double.toString((totalSuccesses * 100.0) / totalTests) + '%')
+            .printTableRow(STATS_PADDING, "Total failed (%):", Double.toString((totalFailures * 100.0) / totalTests) + '%')
+            .printTableRow(STATS_PADDING, "Total skipped (%):", Double.toString((totalSkipped * 100.0) / totalTests) + '%')
+            .printTableRow(STATS_PADDING, "Total coverage (%):", Double.toString(engine.totalCoverage() * 100) + '%')
+            .printTableRow(STATS_PADDING, "Peak tests in flight:", Integer.toString(engine.peakInFlight()));
+        if (engine.reusesResults()) {
+            printer.printTableRow(STATS_PADDING, "Served from cache:", Long.toString(totalCached));
+        }
+        if (plannedTests > totalTests) {
+            printer.printTableRow(STATS_PADDING, "Not run (stopped):", Long.toString(plannedTests - totalTests));
+        }
+        // read back from the results of the run, so a long run does not keep a second copy of every measurement
+        List<TestMetrics> measured = new ArrayList<>();
+        engine.results().forEach((suite, test, result) -> {
+            if (result.getMetrics().isKnown()) {
+                measured.add(result.getMetrics());
+            }
+        });
+        printDistribution(measured, "wall time", TestMetrics::getWallNanos, TestMetrics::formatMillis);
+        printDistribution(measured, "CPU time", TestMetrics::getCpuNanos, TestMetrics::formatMillis);
+        printDistribution(measured, "allocated", TestMetrics::getAllocatedBytes, TestMetrics::formatMebibytes);
+
+        if (totalFailures > 0) {
+            out.println();
+            out.println();
+            out.print("Failed Tests: [");
+            for (String name : failedTests) {
+                out.print(' ');
+                out.print(name);
+            }
+            out.print(" ]");
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package matrnr.events;
+
+import matrnr.Test;
+import matrnr.TestEngine;
+import matrnr.TestResult;
+import matrnr.TestSuite;
+import matrnr.cache.TestHistory;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// one status line that is redrawn in place; a timer keeps the elapsed time moving while a test hangs
+class ProgressLine {
+    private static final long REDRAW_INTERVAL_MILLIS = 250;
+
+    private final TestEngine engine;
+    private final PrintStream out;
+    private ScheduledExecutorService timer;
+    private boolean open;
+    private int planned;
+    private int completed;
+    private int failures;
+    private String currentSuite = "-";
+    private long startNanos;
+    private long lastDraw;
+    private int lastLength;
+    // expected durations from the history as it was when the run started, only used if every planned test has one
+    private final Map<String, Long> expected = new HashMap<>();
+    private long historicalTotal;
+    private long historicalCompleted;
+
+    ProgressLine(TestEngine engine, PrintStream output) {
+        this.engine = engine;
+        out = output;
+    }
+
+    synchronized void start(int plannedTests) {
+        planned = plannedTests;
+        startNanos = System.nanoTime();
+        historicalTotal = historicalTotal();
+        historicalCompleted = 0;
+        completed = 0;
+        failures = 0;
+        open = true;
+        timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "progress-line");
+            t.setDaemon(true);
+            return t;
+        });
+        timer.scheduleAtFixedRate(this::tick, REDRAW_INTERVAL_MILLIS, REDRAW_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        draw();
+    }
+
+    private long historicalTotal() {
+        TestHistory history = engine.getHistory();
+        List<Test> tests = new ArrayList<>(engine.getIsolatedTests());
+        for (TestSuite ts : engine.getSuites()) {
+            tests.addAll(ts.getTests());
+        }
+        expected.clear();
+        long total = 0;
+        for (Test t : tests) {
+            TestHistory.Entry entry = history.get(t);
+            if (entry == null) {
+                return -1;
+            }
+            expected.put(t.getName(), entry.durationNanos());
+            total += entry.durationNanos();
+        }
+        return total;
+    }
+
+    synchronized void testStarted(TestSuite suite) {
+        currentSuite = suite == null ? "isolated tests" : suite.getName();
+    }
+
+    synchronized void testFinished(Test test, TestResult result) {
+        completed++;
+        if (!result.successful() && !result.isSkipped()) {
+            failures++;
+        }
+        if (historicalTotal >= 0) {
+            historicalCompleted += expected.getOrDefault(test.getName(), 0L);
+        }
+        if (System.nanoTime() - lastDraw >= TimeUnit.MILLISECONDS.toNanos(REDRAW_INTERVAL_MILLIS)) {
+            draw();
+        }
+    }
+
+    private synchronized void tick() {
+        if (open) {
+            draw();
+        }
+    }
+
+    // erases the line, so the report that follows starts on a clean one
+    synchronized void close() {
+        if (!open) {
+            return;
+        }
+        open = false;
+        timer.shutdownNow();
+        out.print('\r' + " ".repeat(lastLength) + '\r');
+        out.flush();
+    }
+
+    private void draw() {
+        long now = System.nanoTime();
+        double elapsedSeconds = (now - startNanos) / 1e9;
+        StringBuilder line = new StringBuilder();
+        line.append('[')
+            .append(completed)
+            .append('/')
+            .append(planned)
+            .append("] ")
+            .append(String.format(Locale.ROOT, "%.1f tests/s", elapsedSeconds > 0 ? completed / elapsedSeconds : 0.0))
+            .append(" | suite: ")
+            .append(currentSuite)
+            .append(" | failures: ")
+            .append(failures)
+            .append(" | elapsed: ")
+            .append(seconds(now - startNanos))
+            .append(" | ETA: ")
+            .append(eta(now - startNanos));
+
+        int length = line.length();
+        if (length < lastLength) {
+            line.append(" ".repeat(lastLength - length));
+        }
+        out.print('\r');
+        out.print(line);
+        out.flush();
+        lastLength = length;
+        lastDraw = now;
+    }
+
+    private String eta(long elapsedNanos) {
+        int remaining = planned - completed;
+        if (remaining <= 0) {
+            return "0s";
+        }
+        if (historicalTotal >= 0 && historicalCompleted > 0) {
+            // scale what the history expects for the rest by how fast this run is compared to it
+            double speed = (double) elapsedNanos / historicalCompleted;
+            return seconds((long) (Math.max(historicalTotal - historicalCompleted, 0) * speed));
+        }
+        if (completed == 0) {
+            return "-";
+        }
+        return seconds(elapsedNanos / completed * remaining);
+    }
+
+    private static String seconds(long nanos) {
+        long s = TimeUnit.NANOSECONDS.toSeconds(nanos);
+        return s < 60 ? s + "s" : (s / 60) + "m" + (s % 60) + 's';
+    }
+}
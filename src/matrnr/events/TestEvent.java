@@ -0,0 +1,96 @@
+package matrnr.events;
+
+import matrnr.Test;
+import matrnr.TestResult;
+import matrnr.TestSuite;
+
+public class TestEvent {
+    public enum Type {
+        RUN_STARTED,
+        SUITE_STARTED,
+        TEST_STARTED,
+        TEST_FINISHED,
+        RUN_FINISHED
+    }
+
+    private final Type type;
+    private final TestSuite suite;
+    private final Test test;
+    private final TestResult result;
+    private final int plannedTests;
+
+    private TestEvent(Type type, TestSuite suite, Test test, TestResult result, int plannedTests) {
+        this.type = type;
+        this.suite = suite; // nullable
+        this.test = test; // nullable
+        this.result = result; // nullable
+        this.plannedTests = plannedTests;
+    }
+
+    public static TestEvent runStarted(int plannedTests) {
+        return new TestEvent(Type.RUN_STARTED, null, null, null, plannedTests);
+    }
+
+    public static TestEvent suiteStarted(TestSuite suite) {
+        return new TestEvent(Type.SUITE_STARTED, suite, null, null, suite.getTests().size());
+    }
+
+    public static TestEvent testStarted(TestSuite suite, Test test) {
+        return new TestEvent(Type.TEST_STARTED, suite, test, null, 1);
+    }
+
+    public static TestEvent testFinished(TestSuite suite, Test test, TestResult result) {
+        return new TestEvent(Type.TEST_FINISHED, suite, test, result, 1);
+    }
+
+    public static TestEvent runFinished() {
+        return new TestEvent(Type.RUN_FINISHED, null, null, null, 0);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    // null for isolated tests and for the run events
+    public TestSuite getSuite() {
+        return suite;
+    }
+
+    public boolean isIsolated() {
+        return suite == null;
+    }
+
+    public Test getTest() {
+        return test;
+    }
+
+    public TestResult getResult() {
+        return result;
+    }
+
+    public int getPlannedTests() {
+        return plannedTests;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[EVENT] ");
+        sb.append(type);
+        if (suite != null) {
+            sb.append(" suite: '")
+                .append(suite.getName())
+                .append('\'');
+        }
+        if (test != null) {
+            sb.append(" test: '")
+                .append(test.getName())
+                .append('\'');
+        }
+        if (result != null) {
+            sb.append(" [")
+                .append(result.getOutcome())
+                .append(']');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,67 @@
+package matrnr.events;
+
+import matrnr.Test;
+import matrnr.TestResult;
+import matrnr.TestSuite;
+
+import java.util.concurrent.Flow;
+
+public abstract class TestEventSubscriber implements Flow.Subscriber<TestEvent> {
+    private Flow.Subscription subscription;
+
+    @Override
+    public void onSubscribe(Flow.Subscription s) {
+        subscription = s;
+        // one event at a time, so a slow subscriber pushes back on the engine instead of piling up events
+        subscription.request(1);
+    }
+
+    @Override
+    public void onNext(TestEvent event) {
+        switch (event.getType()) {
+            case RUN_STARTED:
+                runStarted(event.getPlannedTests());
+                break;
+            case SUITE_STARTED:
+                suiteStarted(event.getSuite());
+                break;
+            case TEST_STARTED:
+                testStarted(event.getSuite(), event.getTest());
+                break;
+            case TEST_FINISHED:
+                testFinished(event.getSuite(), event.getTest(), event.getResult());
+                break;
+            case RUN_FINISHED:
+                runFinished();
+                break;
+        }
+        subscription.request(1);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        runAborted(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+    }
+
+    protected void runStarted(int plannedTests) {
+    }
+
+    protected void suiteStarted(TestSuite suite) {
+    }
+
+    protected void testStarted(TestSuite suite, Test test) {
+    }
+
+    protected void testFinished(TestSuite suite, Test test, TestResult result) {
+    }
+
+    protected void runFinished() {
+    }
+
+    protected void runAborted(Throwable cause) {
+    }
+}
@@ -0,0 +1,85 @@
+package matrnr.execution;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// what is kept of an expected exception: its type and the frames it was thrown from, but no message or cause;
+// equal ones are shared across the whole JVM, so a failure that repeats a million times is stored once
+public final class CompactException extends Throwable {
+    private static final long serialVersionUID = 1L;
+
+    static final int FRAMES = 3;
+    // beyond that many kinds, new ones are still compacted but no longer shared
+    private static final int MAX_INTERNED = 10_000;
+    private static final Map<String, CompactException> INTERNED = new ConcurrentHashMap<>();
+
+    private final String type;
+    private final String fingerprint;
+
+    private CompactException(String type, StackTraceElement[] frames, String fingerprint) {
+        super(null, null, false, true);
+        this.type = type;
+        this.fingerprint = fingerprint;
+        setStackTrace(frames);
+    }
+
+    public static CompactException of(Throwable t) {
+        if (t instanceof CompactException) {
+            return (CompactException) t;
+        }
+        String type = t.getClass().getName();
+        StackTraceElement[] trace = t.getStackTrace();
+        StackTraceElement[] frames = new StackTraceElement[Math.min(trace.length, FRAMES)];
+        for (int i = 0; i < frames.length; i++) {
+            // without the class loader, which would name the submission whose exception happened to be interned first
+            StackTraceElement frame = trace[i];
+            frames[i] = new StackTraceElement(frame.getClassName(), frame.getMethodName(), frame.getFileName(), frame.getLineNumber());
+        }
+
+        // only names go into the key, so interned instances do not keep classes of a submission alive
+        StringBuilder key = new StringBuilder(type);
+        for (StackTraceElement frame : frames) {
+            key.append('|')
+                .append(frame.getClassName())
+                .append('.')
+                .append(frame.getMethodName())
+                .append(':')
+                .append(frame.getLineNumber());
+        }
+        String k = key.toString();
+        CompactException interned = INTERNED.get(k);
+        if (interned != null) {
+            return interned;
+        }
+        CompactException compact = new CompactException(type, frames, String.format("%08x", k.hashCode()));
+        if (INTERNED.size() >= MAX_INTERNED) {
+            return compact;
+        }
+        CompactException previous = INTERNED.putIfAbsent(k, compact);
+        return previous == null ? compact : previous;
+    }
+
+    // the frames are those of the original exception
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+
+    public static int internedKinds() {
+        return INTERNED.size();
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    @Override
+    public String toString() {
+        StackTraceElement[] frames = getStackTrace();
+        return type + " (fingerprint " + fingerprint + (frames.length == 0 ? ")" : ", at " + frames[0] + ')');
+    }
+}
@@ -0,0 +1,32 @@
+package matrnr.execution;
+
+import matrnr.TestResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// how much of the exceptions of a result is kept once the test finished
+@FunctionalInterface
+public interface ExceptionCapture {
+    TestResult apply(TestResult result);
+
+    static ExceptionCapture full() {
+        return result -> result;
+    }
+
+    // unexpected exceptions keep their whole trace, expected ones only type and top frames
+    static ExceptionCapture compactExpected() {
+        return result -> {
+            if (result.getExpectedExceptions().isEmpty()) {
+                return result;
+            }
+            List<Throwable> compacted = new ArrayList<>(result.getExpectedExceptions().size());
+            for (Throwable t : result.getExpectedExceptions()) {
+                compacted.add(CompactException.of(t));
+            }
+            return result.thisBuilder()
+                .expectedExceptions(compacted)
+                .build();
+        };
+    }
+}
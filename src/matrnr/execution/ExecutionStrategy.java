@@ -0,0 +1,27 @@
+package matrnr.execution;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+
+@FunctionalInterface
+public interface ExecutionStrategy {
+    ExecutorService newExecutor();
+
+    static ExecutionStrategy sequential() {
+        return DirectExecutorService::new;
+    }
+
+    static ExecutionStrategy forkJoin(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1, was " + parallelism);
+        }
+        return () -> new ForkJoinPool(parallelism);
+    }
+
+    static ExecutionStrategy threadPerTest(int maxConcurrent) {
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("Concurrency limit must be at least 1, was " + maxConcurrent);
+        }
+        return () -> new ThreadPerTaskExecutor(maxConcurrent);
+    }
+}
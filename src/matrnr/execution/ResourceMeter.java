@@ -0,0 +1,66 @@
+package matrnr.execution;
+
+import matrnr.Test;
+import matrnr.TestMetrics;
+import matrnr.TestResult;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+// measures a test on the thread that runs it, so the numbers stay right when a watchdog thread runs the test
+public class ResourceMeter {
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final com.sun.management.ThreadMXBean ALLOCATIONS = allocationBean();
+    private static final boolean CPU_TIME = enableCpuTime();
+
+    private ResourceMeter() {
+    }
+
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        if (!(THREADS instanceof com.sun.management.ThreadMXBean)) {
+            return null;
+        }
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) THREADS;
+        if (!bean.isThreadAllocatedMemorySupported()) {
+            return null;
+        }
+        bean.setThreadAllocatedMemoryEnabled(true);
+        return bean;
+    }
+
+    private static boolean enableCpuTime() {
+        if (!THREADS.isCurrentThreadCpuTimeSupported()) {
+            return false;
+        }
+        THREADS.setThreadCpuTimeEnabled(true);
+        return true;
+    }
+
+    public static TestResult measure(Test t) {
+        long cpuStart = cpuTime();
+        long allocatedStart = allocatedBytes();
+        long wallStart = System.nanoTime();
+
+        TestResult result = t.test();
+
+        long wall = System.nanoTime() - wallStart;
+        long allocated = difference(allocatedStart, allocatedBytes());
+        long cpu = difference(cpuStart, cpuTime());
+        return result.thisBuilder()
+            .metrics(new TestMetrics(wall, cpu, allocated))
+            .build();
+    }
+
+    private static long cpuTime() {
+        return CPU_TIME ? THREADS.getCurrentThreadCpuTime() : -1;
+    }
+
+    private static long allocatedBytes() {
+        return ALLOCATIONS == null ? -1 : ALLOCATIONS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    // -1 if either end was not measurable, e.g. for virtual threads
+    private static long difference(long start, long end) {
+        return start < 0 || end < 0 ? -1 : end - start;
+    }
+}
@@ -0,0 +1,160 @@
+package matrnr.execution;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+// runs every task once all of its prerequisites succeeded, independent branches run side by side on the executor;
+// a task with a prerequisite that did not succeed is skipped instead, and so are the tasks depending on it
+public class TaskGraph {
+    public static class Node {
+        private final String name;
+        private final BooleanSupplier task;
+        private final Consumer<Node> skip;
+        private final List<Node> prerequisites = new ArrayList<>();
+        private final List<Node> dependents = new ArrayList<>();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicReference<Node> failedPrerequisite = new AtomicReference<>();
+
+        private Node(String name, BooleanSupplier task, Consumer<Node> skip) {
+            this.name = name;
+            this.task = task;
+            this.skip = skip;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    private final List<Node> nodes = new ArrayList<>();
+
+    // the task reports whether it succeeded, skip receives the first prerequisite that did not
+    public Node add(String name, BooleanSupplier task, Consumer<Node> skip) {
+        Node node = new Node(name, task, skip);
+        nodes.add(node);
+        return node;
+    }
+
+    public void dependsOn(Node dependent, Node prerequisite) {
+        if (dependent == prerequisite) {
+            throw new IllegalArgumentException("'" + dependent.name + "' cannot depend on itself");
+        }
+        if (!dependent.prerequisites.contains(prerequisite)) {
+            dependent.prerequisites.add(prerequisite);
+            prerequisite.dependents.add(dependent);
+        }
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+
+    // tasks without prerequisites are started in the order they were added, the others as soon as they are ready
+    public void execute(ExecutorService executor) {
+        checkAcyclic();
+        CountDownLatch remaining = new CountDownLatch(nodes.size());
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        for (Node node : nodes) {
+            node.pending.set(node.prerequisites.size());
+            node.failedPrerequisite.set(null);
+        }
+
+        try {
+            for (Node node : nodes) {
+                if (node.prerequisites.isEmpty()) {
+                    submit(executor, node, remaining, failure);
+                }
+            }
+            remaining.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the tests to finish", ex);
+        } finally {
+            executor.shutdown();
+        }
+
+        Throwable t = failure.get();
+        if (t instanceof RuntimeException) {
+            throw (RuntimeException) t;
+        } else if (t instanceof Error) {
+            throw (Error) t;
+        } else if (t != null) {
+            throw new IllegalStateException("Test execution failed", t);
+        }
+    }
+
+    private void submit(ExecutorService executor, Node node, CountDownLatch remaining, AtomicReference<Throwable> failure) {
+        executor.execute(() -> {
+            boolean succeeded = false;
+            try {
+                succeeded = node.task.getAsBoolean();
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+            } finally {
+                finished(executor, node, succeeded, remaining, failure);
+            }
+        });
+    }
+
+    private void finished(ExecutorService executor, Node node, boolean succeeded, CountDownLatch remaining, AtomicReference<Throwable> failure) {
+        remaining.countDown();
+        for (Node dependent : node.dependents) {
+            if (!succeeded) {
+                dependent.failedPrerequisite.compareAndSet(null, node);
+            }
+            if (dependent.pending.decrementAndGet() > 0) {
+                continue;
+            }
+            Node failed = dependent.failedPrerequisite.get();
+            if (failed == null) {
+                submit(executor, dependent, remaining, failure);
+                continue;
+            }
+            // skipping is cheap, it happens on the thread that finished the last prerequisite
+            try {
+                dependent.skip.accept(failed);
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+            } finally {
+                finished(executor, dependent, false, remaining, failure);
+            }
+        }
+    }
+
+    private void checkAcyclic() {
+        List<Node> ready = new ArrayList<>();
+        for (Node node : nodes) {
+            node.pending.set(node.prerequisites.size());
+            if (node.prerequisites.isEmpty()) {
+                ready.add(node);
+            }
+        }
+        int visited = 0;
+        while (visited < ready.size()) {
+            for (Node dependent : ready.get(visited++).dependents) {
+                if (dependent.pending.decrementAndGet() == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+        if (visited == nodes.size()) {
+            return;
+        }
+
+        StringBuilder cycle = new StringBuilder("Dependencies between tests form a cycle, involved: [");
+        for (Node node : nodes) {
+            if (node.pending.get() > 0) {
+                cycle.append(" '")
+                    .append(node.name)
+                    .append('\'');
+            }
+        }
+        throw new IllegalStateException(cycle.append(" ]").toString());
+    }
+}
@@ -0,0 +1,29 @@
+package matrnr.execution;
+
+import matrnr.Test;
+import matrnr.cache.TestHistory;
+
+import java.util.Comparator;
+
+// the order in which tests are started; tests that compare equal keep the order of registration
+@FunctionalInterface
+public interface TestOrder {
+    Comparator<Test> comparator(TestHistory history);
+
+    static TestOrder registration() {
+        return history -> (a, b) -> 0;
+    }
+
+    // tests that failed last time, then tests that never ran, then the rest; each group fastest first
+    static TestOrder failedFirstThenFastest() {
+        return history -> Comparator.comparingInt((Test t) -> rank(history.get(t)))
+            .thenComparingLong(t -> history.get(t) == null ? 0 : history.get(t).durationNanos());
+    }
+
+    private static int rank(TestHistory.Entry entry) {
+        if (entry == null) {
+            return 1;
+        }
+        return entry.failed() ? 0 : 2;
+    }
+}
@@ -0,0 +1,130 @@
+package matrnr.execution;
+
+import matrnr.TestResult;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// what a result keeps of the objects a test created, decided as soon as the test finished
+@FunctionalInterface
+public interface TestedObjectRetention {
+    String TRUNCATED = " ... (truncated)";
+
+    TestResult apply(TestResult result);
+
+    static TestedObjectRetention live() {
+        return result -> result;
+    }
+
+    // replaces the objects by their dumps, all dumps of a result together, including the markers for truncated and
+    // omitted ones, take at most maxBytes (UTF-8)
+    static TestedObjectRetention snapshot(int maxBytes) {
+        checkBudget(maxBytes);
+        return result -> snapshot(result, maxBytes);
+    }
+
+    // like snapshot, but successful results drop their objects without a dump
+    static TestedObjectRetention snapshotFailures(int maxBytes) {
+        checkBudget(maxBytes);
+        return result -> result.successful() && !result.getTestedObj().isEmpty()
+            ? result.thisBuilder().testedObjects(new ArrayList<>()).build()
+            : snapshot(result, maxBytes);
+    }
+
+    private static void checkBudget(int maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("The byte budget for tested objects must not be negative, was " + maxBytes);
+        }
+    }
+
+    // the markers for truncated and omitted dumps count against the budget as well, they are plain ASCII
+    private static TestResult snapshot(TestResult result, int maxBytes) {
+        List<Object> objects = new ArrayList<>(result.getTestedObj());
+        if (objects.isEmpty()) {
+            return result;
+        }
+        List<Object> dumps = new ArrayList<>(objects.size());
+        List<Integer> lengths = new ArrayList<>(objects.size());
+        int used = 0;
+        for (int i = 0; i < objects.size(); i++) {
+            String dump = String.valueOf(objects.get(i));
+            int length = utf8Length(dump, maxBytes - used + 1);
+            if (length <= maxBytes - used) {
+                dumps.add(dump);
+                lengths.add(length);
+                used += length;
+                continue;
+            }
+
+            // the budget is used up: a truncated part of this dump if there is room, and a line about the rest
+            int omitted = objects.size() - i - 1;
+            int room = maxBytes - used - TRUNCATED.length() - omittedLine(omitted, maxBytes).length();
+            if (room > 0) {
+                dumps.add(truncate(dump, room) + TRUNCATED);
+            } else {
+                omitted++;
+                // earlier dumps that fit completely may have left no room for the line, they give way to it
+                while (!dumps.isEmpty() && used + omittedLine(omitted, maxBytes).length() > maxBytes) {
+                    dumps.remove(dumps.size() - 1);
+                    used -= lengths.remove(lengths.size() - 1);
+                    omitted++;
+                }
+                if (used + omittedLine(omitted, maxBytes).length() > maxBytes) {
+                    // a budget too small even for the line keeps nothing
+                    omitted = 0;
+                }
+            }
+            if (omitted > 0) {
+                dumps.add(omittedLine(omitted, maxBytes));
+            }
+            break;
+        }
+        return result.thisBuilder()
+            .testedObjects(dumps)
+            .build();
+    }
+
+    private static String omittedLine(int omitted, int maxBytes) {
+        return omitted == 0 ? "" : "... " + omitted + " omitted, the budget of " + maxBytes + " bytes is used up";
+    }
+
+    // stops counting once the limit is exceeded, the dump of a large graph can be long
+    private static int utf8Length(String s, int limit) {
+        int length = 0;
+        int i = 0;
+        while (i < s.length() && length < limit) {
+            int size = charLength(s, i);
+            length += size;
+            i += size == 4 ? 2 : 1;
+        }
+        return length;
+    }
+
+    private static int charLength(String s, int i) {
+        char c = s.charAt(i);
+        if (c < 0x80) {
+            return 1;
+        } else if (c < 0x800) {
+            return 2;
+        } else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+            return 4;
+        }
+        return 3;
+    }
+
+    // the longest prefix that fits, without splitting a character
+    private static String truncate(String s, int maxBytes) {
+        int bytes = 0;
+        int end = 0;
+        while (end < s.length()) {
+            int size = charLength(s, end);
+            if (bytes + size > maxBytes) {
+                break;
+            }
+            bytes += size;
+            end += size == 4 ? 2 : 1;
+        }
+        return s.substring(0, end);
+    }
+}
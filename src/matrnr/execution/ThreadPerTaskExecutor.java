@@ -0,0 +1,126 @@
+package matrnr.execution;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+class ThreadPerTaskExecutor extends AbstractExecutorService {
+    private static final ThreadFactory FACTORY = threadFactory();
+
+    private final Semaphore permits;
+    private final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+    private final Queue<Runnable> waiting = new ConcurrentLinkedQueue<>();
+    private volatile boolean shutdown;
+
+    ThreadPerTaskExecutor(int maxConcurrent) {
+        permits = new Semaphore(maxConcurrent);
+        shutdown = false;
+    }
+
+    // virtual threads are only available from Java 21 on, so they are looked up reflectively and
+    // daemon platform threads are used on older runtimes
+    private static ThreadFactory threadFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            return (ThreadFactory) Class.forName("java.lang.Thread$Builder")
+                .getMethod("factory")
+                .invoke(builder);
+        } catch (ReflectiveOperationException ex) {
+            return r -> {
+                Thread t = new Thread(r);
+                t.setDaemon(true);
+                return t;
+            };
+        }
+    }
+
+    // tasks wait in the queue until a permit is free, so there are never more than maxConcurrent threads;
+    // the caller does not block, tasks can submit further tasks while they hold a permit
+    @Override
+    public void execute(Runnable command) {
+        if (shutdown) {
+            throw new RejectedExecutionException("Executor has been shut down");
+        }
+        waiting.add(command);
+        dispatch();
+    }
+
+    // called by execute() and by every thread that gives back its permit, so no queued task is left behind
+    private void dispatch() {
+        while (!waiting.isEmpty() && permits.tryAcquire()) {
+            Runnable command = waiting.poll();
+            if (command == null) {
+                permits.release();
+                continue;
+            }
+            Thread t = FACTORY.newThread(() -> {
+                try {
+                    command.run();
+                } finally {
+                    permits.release();
+                    dispatch();
+                    threads.remove(Thread.currentThread());
+                }
+            });
+            threads.add(t);
+            t.start();
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        shutdown = true;
+        List<Runnable> neverStarted = new ArrayList<>();
+        for (Runnable command = waiting.poll(); command != null; command = waiting.poll()) {
+            neverStarted.add(command);
+        }
+        for (Thread t : threads) {
+            t.interrupt();
+        }
+        return neverStarted;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return shutdown && threads.isEmpty() && waiting.isEmpty();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        // queued tasks start new threads while others finish, so the threads are joined until none are left
+        while (!isTerminated()) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return false;
+            }
+            List<Thread> running = List.copyOf(threads);
+            if (running.isEmpty()) {
+                // a task was taken from the queue and its thread is not registered yet
+                Thread.onSpinWait();
+            }
+            for (Thread t : running) {
+                TimeUnit.NANOSECONDS.timedJoin(t, Math.max(deadline - System.nanoTime(), 1));
+            }
+        }
+        return true;
+    }
+}
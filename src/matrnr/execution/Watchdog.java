@@ -0,0 +1,76 @@
+package matrnr.execution;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+public class Watchdog {
+    public static class Expired extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        private final String threadName;
+        private final Thread.State threadState;
+
+        private Expired(Thread stuck, long timeoutNanos) {
+            super("Did not finish within " + TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + " ms");
+            threadName = stuck.getName();
+            threadState = stuck.getState();
+            setStackTrace(stuck.getStackTrace());
+        }
+
+        public String getThreadName() {
+            return threadName;
+        }
+
+        public Thread.State getThreadState() {
+            return threadState;
+        }
+
+        public String stackDump() {
+            StringBuilder sb = new StringBuilder();
+            sb.append('\'')
+                .append(threadName)
+                .append("' (")
+                .append(threadState)
+                .append(')');
+            for (StackTraceElement e : getStackTrace()) {
+                sb.append("\n\tat ")
+                    .append(e);
+            }
+            return sb.toString();
+        }
+    }
+
+    private Watchdog() {
+    }
+
+    // a task that ignores the interrupt keeps running, but as a daemon thread it cannot keep the JVM alive
+    public static <T> T call(Callable<T> task, long timeoutNanos, String threadName) throws Expired {
+        FutureTask<T> future = new FutureTask<>(task);
+        Thread worker = new Thread(future, threadName);
+        worker.setDaemon(true);
+        worker.start();
+
+        try {
+            return future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            Expired expired = new Expired(worker, timeoutNanos);
+            worker.interrupt();
+            throw expired;
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException("Task '" + threadName + "' failed", cause);
+        } catch (InterruptedException ex) {
+            worker.interrupt();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for task '" + threadName + '\'', ex);
+        }
+    }
+}
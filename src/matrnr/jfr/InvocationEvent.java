@@ -0,0 +1,40 @@
+package matrnr.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import matrnr.Test;
+
+import java.lang.reflect.Executable;
+
+@Name("matrnr.Invocation")
+@Label("Reflective Invocation")
+@Description("A single call of a method or constructor of the tested solution made by a null check")
+@Category({"matrnr", "Tests", "Invocations"})
+public class InvocationEvent extends Event {
+    @Label("Test")
+    public String test;
+
+    @Label("Member")
+    public String member;
+
+    @Label("Covered Class")
+    public Class<?> coveredClass;
+
+    @Label("Outcome")
+    @Description("RETURNED, RETURNED_NULL, or the simple name of the thrown exception")
+    public String outcome;
+
+    public void finish(Test t, Executable exec, String invocationOutcome) {
+        end();
+        if (shouldCommit()) {
+            test = t.getName();
+            member = exec.toString();
+            coveredClass = exec.getDeclaringClass();
+            outcome = invocationOutcome;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package matrnr.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+public class Recordings {
+    private Recordings() {
+    }
+
+    // the JDK's default settings plus the events of the engine, which are enabled without a threshold
+    public static Recording start(String name) throws IOException {
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration("default");
+        } catch (ParseException ex) {
+            throw new IOException("The default JFR configuration could not be read", ex);
+        }
+        Recording recording = new Recording(configuration);
+        recording.setName(name);
+        recording.enable(SuiteExecutionEvent.class).withoutThreshold();
+        recording.enable(TestExecutionEvent.class).withoutThreshold();
+        recording.enable(InvocationEvent.class).withoutThreshold();
+        recording.start();
+        return recording;
+    }
+
+    public static void stop(Recording recording, Path destination) throws IOException {
+        try (recording) {
+            recording.stop();
+            recording.dump(destination);
+        }
+    }
+
+    // next to the full output, with the extension replaced: results.txt -> results.jfr
+    public static Path nextTo(Path fullOutput) {
+        String name = fullOutput.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return fullOutput.resolveSibling((dot > 0 ? name.substring(0, dot) : name) + ".jfr");
+    }
+
+    static String classNames(Collection<Class<?>> classes) {
+        return classes.stream()
+            .map(Class::getName)
+            .sorted()
+            .collect(Collectors.joining(", "));
+    }
+}
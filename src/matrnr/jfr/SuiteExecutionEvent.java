@@ -0,0 +1,46 @@
+package matrnr.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import matrnr.TestSuite;
+
+@Name("matrnr.SuiteExecution")
+@Label("Suite Execution")
+@Description("From the start of the first test of a suite until the last one finished")
+@Category({"matrnr", "Tests"})
+public class SuiteExecutionEvent extends Event {
+    @Label("Suite")
+    public String suite;
+
+    @Label("Outcome")
+    @Description("SUCCESS if every test of the suite succeeded, STOPPED if the run was stopped before all of them finished")
+    public String outcome;
+
+    @Label("Tests")
+    public int tests;
+
+    @Label("Failed")
+    public int failed;
+
+    @Label("Skipped")
+    public int skipped;
+
+    @Label("Covered Classes")
+    public String coveredClasses;
+
+    public void finish(TestSuite testSuite, String suiteOutcome, int failedTests, int skippedTests) {
+        end();
+        if (shouldCommit()) {
+            suite = testSuite.getName();
+            outcome = suiteOutcome;
+            tests = testSuite.getTests().size();
+            failed = failedTests;
+            skipped = skippedTests;
+            coveredClasses = Recordings.classNames(testSuite.coveredClasses());
+            commit();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package matrnr.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import matrnr.Test;
+import matrnr.TestResult;
+import matrnr.TestSuite;
+
+@Name("matrnr.TestExecution")
+@Label("Test Execution")
+@Description("One test run by the engine, including cache lookups")
+@Category({"matrnr", "Tests"})
+public class TestExecutionEvent extends Event {
+    @Label("Test")
+    public String test;
+
+    @Label("Suite")
+    @Description("Empty for isolated tests")
+    public String suite;
+
+    @Label("Outcome")
+    public String outcome;
+
+    @Label("Cached")
+    public boolean cached;
+
+    @Label("Covered Classes")
+    public String coveredClasses;
+
+    public void finish(TestSuite testSuite, Test t, TestResult result) {
+        end();
+        if (shouldCommit()) {
+            test = t.getName();
+            suite = testSuite == null ? "" : testSuite.getName();
+            outcome = result.getOutcome().name();
+            cached = result.isCached();
+            coveredClasses = Recordings.classNames(t.getTestClasses());
+            commit();
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package matrnr.metrics;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+// counters, gauges and labelled histograms that can be written in the Prometheus text exposition format
+public class MetricsRegistry {
+    public static class Counter {
+        private final LongAdder value = new LongAdder();
+
+        private Counter() {
+        }
+
+        public void increment() {
+            value.increment();
+        }
+
+        public long get() {
+            return value.sum();
+        }
+    }
+
+    // set by the code that owns the value, several engines sharing a registry add to the same gauge
+    public static class Gauge {
+        private final LongAdder value = new LongAdder();
+
+        private Gauge() {
+        }
+
+        public void add(long delta) {
+            value.add(delta);
+        }
+
+        public long get() {
+            return value.sum();
+        }
+    }
+
+    public static class Histogram {
+        private final double[] bounds;
+        private final Map<String, Series> series = new ConcurrentSkipListMap<>();
+
+        private Histogram(double[] bucketBounds) {
+            bounds = bucketBounds;
+        }
+
+        public void observe(String label, double value) {
+            series.computeIfAbsent(label, l -> new Series(bounds.length)).observe(bounds, value);
+        }
+    }
+
+    // one histogram per label value, the buckets are not cumulative until they are written
+    private static class Series {
+        private final LongAdder[] buckets;
+        private final LongAdder count = new LongAdder();
+        private final DoubleAdder sum = new DoubleAdder();
+
+        private Series(int bounds) {
+            buckets = new LongAdder[bounds];
+            for (int i = 0; i < bounds; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        private void observe(double[] bounds, double value) {
+            int bucket = Arrays.binarySearch(bounds, value);
+            bucket = bucket < 0 ? -bucket - 1 : bucket;
+            if (bucket < buckets.length) {
+                buckets[bucket].increment();
+            }
+            count.increment();
+            sum.add(value);
+        }
+    }
+
+    private interface Metric {
+        void writeTo(Appendable out, String name) throws IOException;
+    }
+
+    private static class Registered {
+        private final String name;
+        private final String help;
+        private final String type;
+        private final Object handle;
+        private final Metric metric;
+
+        private Registered(String name, String help, String type, Object handle, Metric metric) {
+            this.name = name;
+            this.help = help;
+            this.type = type;
+            this.handle = handle;
+            this.metric = metric;
+        }
+    }
+
+    private final List<Registered> metrics = new ArrayList<>();
+
+    // asking for a counter, gauge or histogram that is already registered returns it, so engines can share a registry
+    public synchronized Counter counter(String name, String help) {
+        Counter counter = registered(name, Counter.class);
+        if (counter == null) {
+            Counter created = new Counter();
+            register(name, help, "counter", created, (out, n) -> sample(out, n, "", created.get()));
+            counter = created;
+        }
+        return counter;
+    }
+
+    public synchronized Gauge gauge(String name, String help) {
+        Gauge gauge = registered(name, Gauge.class);
+        if (gauge == null) {
+            Gauge created = new Gauge();
+            register(name, help, "gauge", created, (out, n) -> sample(out, n, "", created.get()));
+            gauge = created;
+        }
+        return gauge;
+    }
+
+    // read when the metrics are written, a name can only be used once
+    public synchronized void gauge(String name, String help, LongSupplier value) {
+        if (find(name) != null) {
+            throw new IllegalArgumentException("Metric '" + name + "' is already registered");
+        }
+        register(name, help, "gauge", null, (out, n) -> sample(out, n, "", value.getAsLong()));
+    }
+
+    // the bounds are the upper bounds of the buckets, a bucket for everything above them is added
+    public synchronized Histogram histogram(String name, String help, String labelName, double... bounds) {
+        double[] sorted = bounds.clone();
+        Arrays.sort(sorted);
+        Histogram existing = registered(name, Histogram.class);
+        if (existing != null) {
+            if (!Arrays.equals(existing.bounds, sorted)) {
+                throw new IllegalArgumentException("Metric '" + name + "' is already registered with other buckets");
+            }
+            return existing;
+        }
+        Histogram histogram = new Histogram(sorted);
+        register(name, help, "histogram", histogram, (out, n) -> {
+            for (Map.Entry<String, Series> entry : histogram.series.entrySet()) {
+                String label = labelName + "=\"" + escape(entry.getKey()) + '"';
+                Series series = entry.getValue();
+                long cumulative = 0;
+                for (int i = 0; i < sorted.length; i++) {
+                    cumulative += series.buckets[i].sum();
+                    sample(out, n + "_bucket", label + ",le=\"" + Double.toString(sorted[i]) + '"', cumulative);
+                }
+                sample(out, n + "_bucket", label + ",le=\"+Inf\"", series.count.sum());
+                out.append(n)
+                    .append("_sum{")
+                    .append(label)
+                    .append("} ")
+                    .append(Double.toString(series.sum.sum()))
+                    .append('\n');
+                sample(out, n + "_count", label, series.count.sum());
+            }
+        });
+        return histogram;
+    }
+
+    private Registered find(String name) {
+        for (Registered r : metrics) {
+            if (r.name.equals(name)) {
+                return r;
+            }
+        }
+        return null;
+    }
+
+    private <M> M registered(String name, Class<M> kind) {
+        Registered r = find(name);
+        if (r == null) {
+            return null;
+        }
+        if (!kind.isInstance(r.handle)) {
+            throw new IllegalArgumentException("Metric '" + name + "' is already registered as a " + r.type);
+        }
+        return kind.cast(r.handle);
+    }
+
+    private void register(String name, String help, String type, Object handle, Metric metric) {
+        metrics.add(new Registered(name, help, type, handle, metric));
+    }
+
+    public synchronized <A extends Appendable> A writeTo(A out) throws IOException {
+        for (Registered r : metrics) {
+            out.append("# HELP ")
+                .append(r.name)
+                .append(' ')
+                .append(r.help)
+                .append("\n# TYPE ")
+                .append(r.name)
+                .append(' ')
+                .append(r.type)
+                .append('\n');
+            r.metric.writeTo(out, r.name);
+        }
+        return out;
+    }
+
+    // scrapers reading the file never see a half written one
+    public void writeTo(Path file) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path incomplete = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try (Writer out = Files.newBufferedWriter(incomplete, StandardCharsets.UTF_8)) {
+            writeTo(out);
+        }
+        Files.move(incomplete, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void sample(Appendable out, String name, String labels, long value) throws IOException {
+        out.append(name);
+        if (!labels.isEmpty()) {
+            out.append('{')
+                .append(labels)
+                .append('}');
+        }
+        out.append(' ')
+            .append(Long.toString(value))
+            .append('\n');
+    }
+
+    private static String escape(String labelValue) {
+        return labelValue.replace("\\", "\\\\")
+            .replace("\"", "\\\"")
+            .replace("\n", "\\n");
+    }
+
+    @Override
+    public String toString() {
+        try {
+            return writeTo(new StringBuilder()).toString();
+        } catch (IOException ex) {
+            // StringBuilder does not throw
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -25,50 +25,63 @@ import matrnr.tests.TrainerNullReturnTest;
 import matrnr.tests.TrainerShallowCopyTest;
 import matrnr.tests.TrainerStructureCheck;
 
+import java.util.List;
+
+// the tests of a suite are constructed when the suite is run, not when this class is initialized
 public class Suites {
     private Suites() {
     }
 
     public static TestSuite STRUCTURE_CHECKS = new TestSuite(
         "StructureChecks",
-        new LevelStructureCheck(),
-        new MemberStructureCheck(),
-        new SportsClubStructureCheck(),
-        new SportsStructureCheck(),
-        new TrainerStructureCheck()
+        () -> List.of(
+            new LevelStructureCheck(),
+            new MemberStructureCheck(),
+            new SportsClubStructureCheck(),
+            new SportsStructureCheck(),
+            new TrainerStructureCheck()
+        )
     );
 
     public static TestSuite NULL_PARAMETER_CHECKS = new TestSuite(
         "NullParameterChecks",
-        new LevelNullParameterTest(),
-        new MemberNullParameterTest(),
-        new SportsClubNullParameterTest(),
-        new SportsNullParameterTest(),
-        new TrainerNullParameterTest()
-    );
+        () -> List.of(
+            new LevelNullParameterTest(),
+            new MemberNullParameterTest(),
+            new SportsClubNullParameterTest(),
+            new SportsNullParameterTest(),
+            new TrainerNullParameterTest()
+        )
+    ).dependsOn(STRUCTURE_CHECKS);
 
     public static TestSuite NULL_RETURN_CHECKS = new TestSuite(
         "NullReturnChecks",
-        new LevelNullReturnTest(),
-        new MemberNullReturnTest(),
-        new SportsClubNullReturnTest(),
-        new SportsNullReturnTest(),
-        new TrainerNullReturnTest()
-    );
+        () -> List.of(
+            new LevelNullReturnTest(),
+            new MemberNullReturnTest(),
+            new SportsClubNullReturnTest(),
+            new SportsNullReturnTest(),
+            new TrainerNullReturnTest()
+        )
+    ).dependsOn(STRUCTURE_CHECKS);
 
     public static TestSuite CONTRACT_CHECKS = new TestSuite(
         "ContractChecks",
-        new LevelContractTest(),
-        new MemberContractTest(),
-        new SportsClubContractTest(),
-        new SportsContractTest(),
-        new TrainerContractTest()
+        () -> List.of(
+            new LevelContractTest(),
+            new MemberContractTest(),
+            new SportsClubContractTest(),
+            new SportsContractTest(),
+            new TrainerContractTest()
+        )
     );
 
     public static TestSuite SHALLOW_COPY_CHECKS = new TestSuite(
         "ShallowCopyChecks",
-        new MemberShallowCopyTest(),
-        new SportsClubShallowCopyTest(),
-        new TrainerShallowCopyTest()
-    );
+        () -> List.of(
+            new MemberShallowCopyTest(),
+            new SportsClubShallowCopyTest(),
+            new TrainerShallowCopyTest()
+        )
+    ).dependsOn(STRUCTURE_CHECKS);
 }
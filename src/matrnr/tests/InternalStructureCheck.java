@@ -2,12 +2,9 @@ package matrnr.tests;
 
 import matrnr.Test;
 import matrnr.TestResult;
-import matrnr.utils.Pair;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.Predicate;
@@ -31,66 +28,47 @@ public abstract class InternalStructureCheck extends Test {
         filters = fieldFilters;
     }
 
-    private void checkFieldCount(Set<Field> all, List<String> errors, List<String> warnings) {
+    // a missing field fails the check, an unexpected field count or name is only noted
+    private void checkFieldCount(Set<Field> all, TestResult.Builder res) {
         long fieldCount = all.stream()
             .filter(f -> !Modifier.isStatic(f.getModifiers()))
             .count();
 
         if (fieldCount != expectedFieldCount) {
-            warnings.add(fieldCount + " instance fields found (expected " + expectedFieldCount + ')');
+            res.note("unexpectedFieldCount", "{} instance fields found (expected {})", fieldCount, expectedFieldCount);
         }
     }
 
-    private void checkField(Map.Entry<String, Predicate<Field>> filter, Set<Field> all, List<String> errors, List<String> warnings) {
+    private boolean checkField(Map.Entry<String, Predicate<Field>> filter, Set<Field> all, TestResult.Builder res) {
         Set<Field> fieldCandidates = all.stream()
             .filter(f -> !Modifier.isStatic(f.getModifiers()))
             .filter(filter.getValue())
             .collect(Collectors.toSet());
 
         if (fieldCandidates.size() < 1) {
-            errors.add("No field for storing '" + filter.getKey() + "' found");
+            res.note("missingField", "No field for storing '{}' found", filter.getKey());
+            return false;
         } else if (fieldCandidates.size() == 1) {
             String fieldName = fieldCandidates.iterator().next().getName();
             if (!filter.getKey().equals(fieldName)) {
-                warnings.add("Field for storing '" + filter.getKey() + "' is called '" + fieldName + '\'');
+                res.note("unexpectedFieldName", "Field for storing '{}' is called '{}'", filter.getKey(), fieldName);
             }
         }
-    }
-
-    private Pair<List<String>, List<String>> check(Set<Field> structure) {
-        List<String> errors = new ArrayList<>();
-        List<String> warnings = new ArrayList<>();
-        checkFieldCount(structure, errors, warnings);
-        for (Map.Entry<String, Predicate<Field>> f : filters.entrySet()) {
-            checkField(f, structure, errors, warnings);
-        }
-
-        return new Pair<>(errors, warnings);
+        return true;
     }
 
     @Override
     public TestResult test() {
-        Pair<List<String>, List<String>> errorsAndWarnings = check(Set.of(clazz.getDeclaredFields()));
-        StringBuilder notesBuilder = new StringBuilder();
-        if (!errorsAndWarnings.first().isEmpty()) {
-            notesBuilder.append("\nErrors found in internal structure:");
-            for (String error : errorsAndWarnings.first()) {
-                notesBuilder.append("\n\t- ")
-                    .append(error);
-            }
-        }
-        if (!errorsAndWarnings.second().isEmpty()) {
-            notesBuilder.append("\nWarnings for internal structure:");
-            for (String warning : errorsAndWarnings.second()) {
-                notesBuilder.append("\n\t- ")
-                    .append(warning);
-            }
+        Set<Field> structure = Set.of(clazz.getDeclaredFields());
+        TestResult.Builder res = TestResult.builder()
+            .testedObject(clazz);
+        checkFieldCount(structure, res);
+        boolean complete = true;
+        for (Map.Entry<String, Predicate<Field>> f : filters.entrySet()) {
+            complete &= checkField(f, structure, res);
         }
 
-        return TestResult.builder()
-            .result(errorsAndWarnings.first().isEmpty())
-            .notes(notesBuilder.toString())
-            .testedObject(clazz)
+        return res.result(complete)
             .build();
     }
 }
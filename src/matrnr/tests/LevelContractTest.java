@@ -17,6 +17,7 @@ public class LevelContractTest extends Test {
             Methods.getMethodsInTree(Level.class, "getMappedName", "next", "toString"),
             Set.of()
         );
+        dependsOn("LevelInternalStructureCheck");
     }
 
     private static boolean nextConformsContract() {
@@ -42,17 +43,17 @@ public class LevelContractTest extends Test {
         try {
             if (!nextConformsContract()) {
                 result.failure()
-                    .appendNote("\nThe 'next' method does not work according to the specification");
+                    .note("nextConformsContract", "The 'next' method does not work according to the specification");
             }
 
             if (!toStringReturnsMappedName()) {
                 result.failure()
-                    .appendNote("\n'toString' does not return the mapped name (or the getter is not right)");
+                    .note("toStringReturnsMappedName", "'toString' does not return the mapped name (or the getter is not right)");
             }
         } catch (Throwable t) {
             result.failure()
                 .unexpected(t)
-                .appendNote("\nThrew unexpected exception");
+                .note("unexpectedException", "Threw unexpected exception");
         }
 
         result.testedObjects(List.of(Level.values()));
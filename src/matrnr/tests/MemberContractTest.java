@@ -32,6 +32,7 @@ public class MemberContractTest extends Test {
             ),
             Set.of(Member.class.getDeclaredConstructors())
         );
+        dependsOn("MemberInternalStructureCheck");
     }
 
     private static boolean firstConstructorThrowsExceptions(TestResult.Builder result) {
@@ -276,60 +277,60 @@ public class MemberContractTest extends Test {
         try {
             if (!firstConstructorThrowsExceptions(result)) {
                 result.failure()
-                    .appendNote("\nOne-arg constructor does not throw exceptions on null or empty string inputs");
+                    .note("firstConstructorThrowsExceptions", "One-arg constructor does not throw exceptions on null or empty string inputs");
             } else if (!secondConstructorDelegatesToFirst(result)) {
                 result.failure()
-                    .appendNote("\nTwo-arg constructor does not delegate to one-arg constructor");
+                    .note("secondConstructorDelegatesToFirst", "Two-arg constructor does not delegate to one-arg constructor");
             }
 
             if (!secondConstructorThrowsExceptions(result)) {
                 result.failure()
-                    .appendNote("\nTwo-arg constructor does not throw exceptions on null, empty or nullvalue inputs");
+                    .note("secondConstructorThrowsExceptions", "Two-arg constructor does not throw exceptions on null, empty or nullvalue inputs");
             }
 
             if (!getNameReturnsName(result)) {
                 result.failure()
-                    .appendNote("\nMethod 'getName' does not return the name of the member");
+                    .note("getNameReturnsName", "Method 'getName' does not return the name of the member");
             }
 
             if (!getSportsReturnsSports(result)) {
                 result.failure()
-                    .appendNote("\nMethod 'getSports' does not return 'sports' from member");
+                    .note("getSportsReturnsSports", "Method 'getSports' does not return 'sports' from member");
             }
 
             if (!getBillableSportsReturnsSportsKeySet(result)) {
                 result.failure()
-                    .appendNote("\nMethod 'getBillableSports' does not return the set of all sports");
+                    .note("getBillableSportsReturnsSportsKeySet", "Method 'getBillableSports' does not return the set of all sports");
             }
 
             if (!learnConformsToContract(result)) {
                 result.failure()
-                    .appendNote("\nMethod 'learn' does not work according to the specification");
+                    .note("learnConformsToContract", "Method 'learn' does not work according to the specification");
             }
 
             if (!toStringFormatsCorrectly(result)) {
                 result.failure()
-                    .appendNote("\n'toString' returns a string that does not conform to the format specification");
+                    .note("toStringFormatsCorrectly", "'toString' returns a string that does not conform to the format specification");
             }
 
             if (!compareToComparesCorrectly(result)) {
                 result.failure()
-                    .appendNote("\n'compareTo' comparisons are invalid, or do not (just) take 'name' into account");
+                    .note("compareToComparesCorrectly", "'compareTo' comparisons are invalid, or do not (just) take 'name' into account");
             }
 
             if (!equalsComparesCorrectly(result)) {
                 result.failure()
-                    .appendNote("\n'equals' comparisons are invalid, or do not (just) take 'name' into account");
+                    .note("equalsComparesCorrectly", "'equals' comparisons are invalid, or do not (just) take 'name' into account");
             }
 
             if (!hashCodeHashesCorrectly(result)) {
                 result.failure()
-                    .appendNote("\n'hashCode' hashings are invalid, or do not (just) take 'name' into account");
+                    .note("hashCodeHashesCorrectly", "'hashCode' hashings are invalid, or do not (just) take 'name' into account");
             }
         } catch (Throwable t) {
             result.failure()
                 .unexpected(t)
-                .appendNote("\nThrew unexpected exception");
+                .note("unexpectedException", "Threw unexpected exception");
         }
 
         return result.build();
@@ -111,17 +111,17 @@ public class MemberShallowCopyTest extends Test {
         try {
             if (!constructorShallowCopy(result)) {
                 result.failure()
-                    .appendNote("\nTwo-Arg Constructor does not perform proper shallow copy");
+                    .note("constructorShallowCopy", "Two-Arg Constructor does not perform proper shallow copy");
             }
 
             if (!getSportsShallowCopy(result)) {
                 result.failure()
-                    .appendNote("\nMethod 'getSports' does not perform proper shallow copy");
+                    .note("getSportsShallowCopy", "Method 'getSports' does not perform proper shallow copy");
             }
         } catch (Throwable t) {
             result.failure()
                 .unexpected(t)
-                .appendNote("\nThrew unexpected exception");
+                .note("unexpectedException", "Threw unexpected exception");
         }
 
         return result.build();
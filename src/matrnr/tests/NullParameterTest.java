@@ -2,17 +2,18 @@ package matrnr.tests;
 
 import matrnr.Test;
 import matrnr.TestResult;
+import matrnr.jfr.InvocationEvent;
+import matrnr.utils.ClassMetadata;
 import matrnr.utils.DefaultObjects;
 import matrnr.utils.Invokable;
+import matrnr.utils.Invokers;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Executable;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -22,11 +23,13 @@ public abstract class NullParameterTest extends Test {
     private final Set<Class<? extends Throwable>> allowed;
 
     private final Supplier<Object> testable;
+    private final Map<Executable, Object[]> parameterMasks = new HashMap<>();
 
-    private static <T extends Executable> Set<T> filterApplicable(Class<?> toTest, Function<Class<?>, T[]> getter, Set<String> excludes) {
-        return Arrays.stream(getter.apply(toTest))
-            .filter(e -> Modifier.isPublic(e.getModifiers()))
-            .filter(e -> Arrays.stream(e.getParameterTypes()).anyMatch(t -> !t.isPrimitive()))
+    private static <T extends Executable> Set<T> filterApplicable(Class<?> toTest, Function<ClassMetadata, Set<T>> getter, Set<String> excludes) {
+        ClassMetadata meta = ClassMetadata.of(toTest);
+        return getter.apply(meta)
+            .stream()
+            .filter(e -> meta.profile(e).hasReferenceParameter())
             .filter(e -> !excludes.contains(e.getName()))
             .collect(Collectors.toSet());
     }
@@ -36,44 +39,61 @@ public abstract class NullParameterTest extends Test {
             Set.of(toTest),
             toTest.getSimpleName() + "NullParameterChecks",
             "Checks whether 'null' input parameters are handled properly in methods and constructors of " + toTest.getSimpleName(),
-            filterApplicable(toTest, Class::getDeclaredMethods, C.checkAll(excludes)),
-            filterApplicable(toTest, Class::getDeclaredConstructors, C.checkAll(excludes))
+            filterApplicable(toTest, ClassMetadata::publicMethods, C.checkAll(excludes)),
+            filterApplicable(toTest, ClassMetadata::publicConstructors, C.checkAll(excludes))
         );
         allowed = C.checkAll(allowedExceptions);
-        C.check(toTest);
+        ClassMetadata meta = ClassMetadata.of(toTest);
+        for (Executable exec : testedConstructors) {
+            parameterMasks.put(exec, parameterMask(meta.profile(exec)));
+        }
+        for (Executable exec : testedMethods) {
+            parameterMasks.put(exec, parameterMask(meta.profile(exec)));
+        }
         testable = () -> DefaultObjects.get(toTest);
     }
 
-    private void testNullBehaviour(Executable exec, Invokable inv, TestResult.Builder res) {
-        List<Object> parameterMask = new ArrayList<>();
-        for (Class<?> p : exec.getParameterTypes()) {
-            if (!p.isPrimitive()) {
-                parameterMask.add(null);
-            } else {
-                parameterMask.add(DefaultObjects.get(p));
+    private static Object[] parameterMask(ClassMetadata.Profile profile) {
+        Object[] parameterMask = new Object[profile.parameterCount()];
+        for (int i = 0; i < parameterMask.length; i++) {
+            Class<?> p = profile.parameterType(i);
+            if (p.isPrimitive()) {
+                parameterMask[i] = DefaultObjects.get(p);
             }
         }
+        return parameterMask;
+    }
 
+    private void testNullBehaviour(Executable exec, Invokable inv, TestResult.Builder res) {
+        InvocationEvent event = new InvocationEvent();
+        String outcome = "RETURNED";
+        event.begin();
         try {
-            inv.invoke(parameterMask.toArray());
-            res.appendNote("\nCalled '" + exec.getName() + "' with null value but did not throw exception (may be a problem)");
+            // the invokers spread the mask into a fresh argument list, so it can be shared between calls
+            inv.invoke(parameterMasks.get(exec));
+            res.note("nullAccepted", exec, "Called '{}' with null value but did not throw exception (may be a problem)", exec.getName());
         } catch (InvocationTargetException ex) {
             Throwable targetExc = ex.getCause();
+            outcome = targetExc.getClass().getSimpleName();
             if (allowed.stream().anyMatch(cls -> cls.isInstance(targetExc))) {
                 res.expected(targetExc);
             } else {
                 res.failure()
                     .unexpected(targetExc);
                 if (targetExc instanceof NullPointerException) {
-                    res.appendNote("\nNullPointerException caught by '" + exec.getName() + '\'');
+                    res.note("nullPointerException", exec, "NullPointerException caught by '{}'", exec.getName());
                 } else {
-                    res.appendNote("\nunexpected Exception caught by '" + exec.getName() + '\'');
+                    res.note("unexpectedException", exec, "unexpected Exception caught by '{}'", exec.getName());
                 }
             }
         } catch (InstantiationException ex) {
+            outcome = ex.getClass().getSimpleName();
             throw new UnsupportedOperationException("Cannot nullcheck because constructor invocation failed", ex);
         } catch (IllegalAccessException ex) {
+            outcome = ex.getClass().getSimpleName();
             throw new UnsupportedOperationException("Cannot nullcheck because access was denied", ex);
+        } finally {
+            event.finish(this, exec, outcome);
         }
     }
 
@@ -84,10 +104,10 @@ public abstract class NullParameterTest extends Test {
             .testedObject(testable.get());
 
         for (Constructor<?> c : testedConstructors) {
-            testNullBehaviour(c, c::newInstance, res);
+            testNullBehaviour(c, Invokers.forConstructor(c), res);
         }
         for (Method m : testedMethods) {
-            testNullBehaviour(m, params -> m.invoke(testable.get(), params), res);
+            testNullBehaviour(m, Invokers.forMethod(m, testable), res);
         }
         return res.build();
     }
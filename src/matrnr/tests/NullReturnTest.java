@@ -2,14 +2,14 @@ package matrnr.tests;
 
 import matrnr.Test;
 import matrnr.TestResult;
+import matrnr.jfr.InvocationEvent;
+import matrnr.utils.ClassMetadata;
 import matrnr.utils.DefaultObjects;
+import matrnr.utils.Invokers;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
 import java.util.Set;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -19,10 +19,13 @@ public abstract class NullReturnTest extends Test {
     private static final String COMPARE_TO = "compareTo";
     private final Supplier<Object> testable;
     private final Class<?> subject;
+    private final ClassMetadata metadata;
 
     private static Set<Method> filterApplicable(Class<?> toTest, Set<String> excludes) {
-        return Arrays.stream(toTest.getDeclaredMethods())
-            .filter(m -> Modifier.isPublic(m.getModifiers()) && !Modifier.isStatic(m.getModifiers()))
+        return ClassMetadata.of(toTest)
+            .publicMethods()
+            .stream()
+            .filter(m -> !Modifier.isStatic(m.getModifiers()))
             .filter(m -> !m.getReturnType().equals(void.class))
             .filter(m -> !excludes.contains(m.getName()))
             .collect(Collectors.toSet());
@@ -37,43 +40,63 @@ public abstract class NullReturnTest extends Test {
             Set.of()
         );
         subject = C.check(toTest);
+        metadata = ClassMetadata.of(toTest);
         testable = () -> DefaultObjects.get(toTest);
     }
 
     private void testReturnBehaviour(Method m, TestResult.Builder res) {
-        Class<?>[] parameterTypes = m.getParameterTypes();
-        List<Object> defaults = new ArrayList<>(parameterTypes.length);
+        ClassMetadata.Profile profile = metadata.profile(m);
+        Object[] defaults = new Object[profile.parameterCount()];
         if (EQUALS.equals(m.getName()) || COMPARE_TO.equals(m.getName())) {
-            defaults.add(DefaultObjects.get(subject));
+            defaults[0] = DefaultObjects.get(subject);
         } else {
-            for (Class<?> p : parameterTypes) {
-                defaults.add(DefaultObjects.get(p));
+            for (int i = 0; i < defaults.length; i++) {
+                defaults[i] = DefaultObjects.get(profile.parameterType(i));
             }
         }
 
-        boolean fail = false;
+        String check = null;
+        String message = null;
+        InvocationEvent event = new InvocationEvent();
+        String outcome = "RETURNED";
+        event.begin();
         try {
-            Object returnValue = m.invoke(testable.get(), defaults.toArray());
+            Object returnValue = Invokers.forMethod(m, testable).call(defaults);
             if (returnValue == null) {
-                res.failure()
-                    .appendNote('\n' + m.getName() + " returned a null value");
-                fail = true;
+                outcome = "RETURNED_NULL";
+                check = "nullReturned";
+                message = "{} returned a null value";
             }
         } catch (InvocationTargetException ex) {
-            res.failure()
-                .unexpected(ex.getCause())
-                .appendNote("\nunexpected Exception caught by '" + m.getName() + '\'');
-            fail = true;
+            outcome = ex.getCause().getClass().getSimpleName();
+            res.unexpected(ex.getCause());
+            check = "unexpectedException";
+            message = "unexpected Exception caught by '{}'";
         } catch (IllegalAccessException ex) {
+            outcome = ex.getClass().getSimpleName();
             throw new UnsupportedOperationException("Cannot nullcheck because access was denied", ex);
+        } catch (InstantiationException ex) {
+            outcome = ex.getClass().getSimpleName();
+            throw new UnsupportedOperationException("Cannot nullcheck because instantiation failed", ex);
+        } finally {
+            event.finish(this, m, outcome);
         }
-        if (fail && !defaults.isEmpty()) {
-            res.appendNote(". Parameters used: [");
-            for (Object obj : defaults) {
-                res.appendNote(" '" + obj.toString() + '\'');
-            }
-            res.appendNote(" ]");
+        if (check == null) {
+            return;
+        }
+        if (defaults.length == 0) {
+            res.failure()
+                .note(check, m, message, m.getName());
+            return;
+        }
+        StringBuilder parameters = new StringBuilder();
+        for (Object obj : defaults) {
+            parameters.append(" '")
+                .append(obj.toString())
+                .append('\'');
         }
+        res.failure()
+            .note(check, m, message + ". Parameters used: [{} ]", m.getName(), parameters);
     }
 
     @Override
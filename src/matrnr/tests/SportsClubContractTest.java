@@ -39,6 +39,7 @@ public class SportsClubContractTest extends Test {
             ),
             Set.of(SportsClub.class.getDeclaredConstructors())
         );
+        dependsOn("SportsClubInternalStructureCheck");
     }
 
     private static boolean constructorThrowsExceptions(TestResult.Builder result) {
@@ -413,72 +414,72 @@ public class SportsClubContractTest extends Test {
         try {
             if (!constructorThrowsExceptions(result)) {
                 result.failure()
-                    .appendNote("\nConstructor did not throw exceptions on invalid input");
+                    .note("constructorThrowsExceptions", "Constructor did not throw exceptions on invalid input");
             }
 
             if (!getNameReturnsName(result)) {
                 result.failure()
-                    .appendNote("\nMethod 'getName' did not return the SportsClub's name");
+                    .note("getNameReturnsName", "Method 'getName' did not return the SportsClub's name");
             }
 
             if (!getFeePerSportsReturnsFee(result)) {
                 result.failure()
-                    .appendNote("\nMethod 'getFeePerSports' did not return the right fee");
+                    .note("getFeePerSportsReturnsFee", "Method 'getFeePerSports' did not return the right fee");
             }
 
             if (!getMembersReturnsMembers(result)) {
                 result.failure()
-                    .appendNote("\nMethod 'getMembers' did not return the member set (or 'addMember' is not implemented correctly)");
+                    .note("getMembersReturnsMembers", "Method 'getMembers' did not return the member set (or 'addMember' is not implemented correctly)");
             }
 
             if (!getSportsReturnsOfferedSports(result)) {
                 result.failure()
-                    .appendNote("\nMethod 'getSports' did not return offered sports (or 'addMember' is not implemented correctly)");
+                    .note("getSportsReturnsOfferedSports", "Method 'getSports' did not return offered sports (or 'addMember' is not implemented correctly)");
             }
 
             if (!calculateMembershipFeeThrowsException(result)) {
                 result.failure()
-                    .appendNote("\nMethod 'calculateMembershipFee' did not throw exception on invalid input");
+                    .note("calculateMembershipFeeThrowsException", "Method 'calculateMembershipFee' did not throw exception on invalid input");
             }
 
             if (!calculateMembershipFeeReturnsFee(result)) {
                 result.failure()
-                    .appendNote("\nMethod 'calculateMembershipFee' returned a wrong result");
+                    .note("calculateMembershipFeeReturnsFee", "Method 'calculateMembershipFee' returned a wrong result");
             }
 
             if (!registerSportsThrowsException(result)) {
                 result.failure()
-                    .appendNote("\nMethod 'registerSports' did not throw exception on invalid input");
+                    .note("registerSportsThrowsException", "Method 'registerSports' did not throw exception on invalid input");
             }
 
             if (!registerSportsConformsContract(result)) {
                 result.failure()
-                    .appendNote("\nMethod 'registerSports' does not return according to specification");
+                    .note("registerSportsConformsContract", "Method 'registerSports' does not return according to specification");
             }
 
             if (!registerSportsInvokesLearn(result)) {
                 result.failure()
-                    .appendNote("\nMethod 'registerSports' does not let member learn the sport");
+                    .note("registerSportsInvokesLearn", "Method 'registerSports' does not let member learn the sport");
             }
 
             if (!addMemberConformsContract(result)) {
                 result.failure()
-                    .appendNote("\nMethod 'addMember' does not work according to specification");
+                    .note("addMemberConformsContract", "Method 'addMember' does not work according to specification");
             }
 
             if (!removeMemberConformsContract(result)) {
                 result.failure()
-                    .appendNote("\nMethod 'removeMember' does not work according to specification");
+                    .note("removeMemberConformsContract", "Method 'removeMember' does not work according to specification");
             }
 
             if (!toStringFormatsCorrectly(result)) {
                 result.failure()
-                    .appendNote("\n'toString' returns a string that does not conform to the format specification");
+                    .note("toStringFormatsCorrectly", "'toString' returns a string that does not conform to the format specification");
             }
         } catch (Throwable t) {
             result.failure()
                 .unexpected(t)
-                .appendNote("\nthrew unexpected exception");
+                .note("unexpectedException", "threw unexpected exception");
         }
         return result.build();
     }
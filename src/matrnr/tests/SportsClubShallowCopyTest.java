@@ -71,12 +71,12 @@ public class SportsClubShallowCopyTest extends Test {
         try {
             if (!getMembersShallowCopy(result)) {
                 result.failure()
-                    .appendNote("\nMethod 'getMembers' does not perform proper shallow copy");
+                    .note("getMembersShallowCopy", "Method 'getMembers' does not perform proper shallow copy");
             }
         } catch (Throwable t) {
             result.failure()
                 .unexpected(t)
-                .appendNote("\nThrew unexpected exception");
+                .note("unexpectedException", "Threw unexpected exception");
         }
 
         return result.build();
@@ -22,6 +22,7 @@ public class SportsContractTest extends Test {
             ),
             Set.of()
         );
+        dependsOn("SportsInternalStructureCheck");
     }
 
     private static boolean getFeeFactorConformsContract() {
@@ -61,17 +62,17 @@ public class SportsContractTest extends Test {
         try {
             if (!getFeeFactorConformsContract()) {
                 result.failure()
-                    .appendNote("\nMethod 'getFeeFactor' returns a value that deviates from the specification");
+                    .note("getFeeFactorConformsContract", "Method 'getFeeFactor' returns a value that deviates from the specification");
             }
 
             if (!getFeeConformsContract()) {
                 result.failure()
-                    .appendNote("\nMethod 'getFee' calculates a wrong result");
+                    .note("getFeeConformsContract", "Method 'getFee' calculates a wrong result");
             }
         } catch (Throwable t) {
             result.failure()
                 .unexpected(t)
-                .appendNote("\nThrew unexpected exception");
+                .note("unexpectedException", "Threw unexpected exception");
         }
 
         result.testedObjects(List.of(Sports.values()));
@@ -26,6 +26,7 @@ public class TrainerContractTest extends Test {
             ),
             Set.of(Trainer.class.getDeclaredConstructors())
         );
+        dependsOn("TrainerInternalStructureCheck");
     }
 
     private static boolean constructorConformsContract(TestResult.Builder result) {
@@ -131,27 +132,27 @@ public class TrainerContractTest extends Test {
         try {
             if (!constructorConformsContract(result)) {
                 result.failure()
-                    .appendNote("\nConstructor does not conform to specification");
+                    .note("constructorConformsContract", "Constructor does not conform to specification");
             }
 
             if (!getAccreditationsReturnsAccreditations(result)) {
                 result.failure()
-                    .appendNote("\nMethod 'getAccreditations' does not return the accreditations map (or it is affected by 'learn')");
+                    .note("getAccreditationsReturnsAccreditations", "Method 'getAccreditations' does not return the accreditations map (or it is affected by 'learn')");
             }
 
             if (!getBillableSportsReturnsCorrectSet(result)) {
                 result.failure()
-                    .appendNote("\nMethod 'getBillableSports' does not return the correct set of sports");
+                    .note("getBillableSportsReturnsCorrectSet", "Method 'getBillableSports' does not return the correct set of sports");
             }
 
             if (!toStringFormatsCorrectly(result)) {
                 result.failure()
-                    .appendNote("\n'toString' returns a string that does not conform to the format specification");
+                    .note("toStringFormatsCorrectly", "'toString' returns a string that does not conform to the format specification");
             }
         } catch (Throwable t) {
             result.failure()
                 .unexpected(t)
-                .appendNote("\nThrew unexpected exception");
+                .note("unexpectedException", "Threw unexpected exception");
         }
 
         return result.build();
@@ -143,22 +143,22 @@ public class TrainerShallowCopyTest extends Test {
         try {
             if (!constructorShallowCopy(result)) {
                 result.failure()
-                    .appendNote("\nTwo-Arg Constructor does not perform proper shallow copy");
+                    .note("constructorShallowCopy", "Two-Arg Constructor does not perform proper shallow copy");
             }
 
             if (!getAccreditationsShallowCopy(result)) {
                 result.failure()
-                    .appendNote("\nMethod 'getAccreditations' does not perform proper shallow copy");
+                    .note("getAccreditationsShallowCopy", "Method 'getAccreditations' does not perform proper shallow copy");
             }
 
             if (!getBillableSportsShallowCopy(result)) {
                 result.failure()
-                    .appendNote("\nMethod 'getBillableSports' does not perform proper shallow copies internally");
+                    .note("getBillableSportsShallowCopy", "Method 'getBillableSports' does not perform proper shallow copies internally");
             }
         } catch (Throwable t) {
             result.failure()
                 .unexpected(t)
-                .appendNote("\nThrew unexpected exception");
+                .note("unexpectedException", "Threw unexpected exception");
         }
 
         return result.build();
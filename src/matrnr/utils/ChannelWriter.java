@@ -0,0 +1,112 @@
+package matrnr.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+
+public class ChannelWriter implements Appendable, Closeable {
+    private static final int BUFFER_SIZE = 8192;
+
+    private final FileChannel channel;
+    private final CharsetEncoder encoder;
+    private final CharBuffer chars;
+    private final ByteBuffer bytes;
+    private final long forceIntervalNanos;
+    private long lastForce;
+
+    public ChannelWriter(Path path, Duration forceInterval) throws IOException {
+        channel = FileChannel.open(
+            path,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING
+        );
+        encoder = StandardCharsets.UTF_8.newEncoder();
+        chars = CharBuffer.allocate(BUFFER_SIZE);
+        bytes = ByteBuffer.allocate((int) (BUFFER_SIZE * encoder.maxBytesPerChar()));
+        forceIntervalNanos = forceInterval.toNanos();
+        lastForce = System.nanoTime();
+    }
+
+    @Override
+    public ChannelWriter append(CharSequence csq) throws IOException {
+        CharSequence seq = csq == null ? "null" : csq;
+        return append(seq, 0, seq.length());
+    }
+
+    @Override
+    public ChannelWriter append(CharSequence csq, int start, int end) throws IOException {
+        CharSequence seq = csq == null ? "null" : csq;
+        int pos = start;
+        while (pos < end) {
+            if (!chars.hasRemaining()) {
+                encode(false);
+            }
+            int chunk = Math.min(chars.remaining(), end - pos);
+            chars.append(seq, pos, pos + chunk);
+            pos += chunk;
+        }
+        return this;
+    }
+
+    @Override
+    public ChannelWriter append(char c) throws IOException {
+        if (!chars.hasRemaining()) {
+            encode(false);
+        }
+        chars.put(c);
+        return this;
+    }
+
+    private void encode(boolean endOfInput) throws IOException {
+        chars.flip();
+        CoderResult result;
+        do {
+            result = encoder.encode(chars, bytes, endOfInput);
+            if (result.isError()) {
+                result.throwException();
+            }
+            drain();
+        } while (result.isOverflow());
+        // an unpaired high surrogate at the end of the buffer stays for the next round
+        chars.compact();
+    }
+
+    private void drain() throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        bytes.clear();
+    }
+
+    // hands everything written so far to the OS, and forces it to the disk if the force interval has passed
+    public void flush() throws IOException {
+        encode(false);
+        long now = System.nanoTime();
+        if (now - lastForce >= forceIntervalNanos) {
+            channel.force(false);
+            lastForce = now;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            encode(true);
+            encoder.flush(bytes);
+            drain();
+            channel.force(false);
+        } finally {
+            channel.close();
+        }
+    }
+}
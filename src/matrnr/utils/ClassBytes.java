@@ -0,0 +1,131 @@
+package matrnr.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.TreeSet;
+
+public class ClassBytes {
+    private static final ClassValue<String> HASHES = new ClassValue<>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            return computeHash(type);
+        }
+    };
+
+    private static final ClassValue<String> DEPENDENCY_HASHES = new ClassValue<>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            return computeDependencyHash(type);
+        }
+    };
+
+    private ClassBytes() {
+    }
+
+    // null if the class file is not available, e.g. for classes defined at runtime
+    public static byte[] read(Class<?> cls) throws IOException {
+        try (InputStream in = cls.getResourceAsStream('/' + cls.getName().replace('.', '/') + ".class")) {
+            return in == null ? null : in.readAllBytes();
+        }
+    }
+
+    // hash over the class files of the whole nest, so changes to nested, local and anonymous classes are included
+    public static String hash(Class<?> cls) {
+        return HASHES.get(cls);
+    }
+
+    // hash over the class itself and every class of the same package it references, directly or indirectly, e.g.
+    // SportsClub -> Member -> Level. A change to Member changes the behaviour of SportsClub as well.
+    public static String dependencyHash(Class<?> cls) {
+        return DEPENDENCY_HASHES.get(cls);
+    }
+
+    public static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static String computeDependencyHash(Class<?> cls) {
+        Set<Class<?>> dependencies = new TreeSet<>(Comparator.comparing(Class::getName));
+        Deque<Class<?>> pending = new ArrayDeque<>();
+        pending.add(cls);
+        while (!pending.isEmpty()) {
+            Class<?> next = pending.poll();
+            if (!dependencies.add(next)) {
+                continue;
+            }
+            for (Class<?> member : next.getNestMembers()) {
+                for (String name : referencedClasses(member)) {
+                    Class<?> referenced = samePackage(cls, name);
+                    if (referenced != null && !dependencies.contains(referenced)) {
+                        pending.add(referenced);
+                    }
+                }
+            }
+        }
+
+        MessageDigest digest = sha256();
+        for (Class<?> dependency : dependencies) {
+            digest.update(hash(dependency).getBytes(StandardCharsets.UTF_8));
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static Class<?> samePackage(Class<?> cls, String name) {
+        if (!cls.getPackageName().equals(name.substring(0, Math.max(0, name.lastIndexOf('.'))))) {
+            return null;
+        }
+        try {
+            Class<?> referenced = Class.forName(name, false, cls.getClassLoader());
+            return referenced.getNestHost();
+        } catch (ClassNotFoundException | LinkageError ex) {
+            // shows up as a failing test anyway
+            return null;
+        }
+    }
+
+    // every class it instantiates, calls or accesses fields of
+    private static Set<String> referencedClasses(Class<?> cls) {
+        try {
+            byte[] bytes = read(cls);
+            return bytes == null ? Set.of() : ClassFile.parse(bytes).getReferencedClasses();
+        } catch (IOException ex) {
+            return Set.of();
+        }
+    }
+
+    private static String computeHash(Class<?> cls) {
+        MessageDigest digest = sha256();
+        Class<?>[] nest = cls.getNestMembers();
+        Arrays.sort(nest, Comparator.comparing(Class::getName));
+        for (Class<?> member : nest) {
+            byte[] bytes;
+            try {
+                bytes = read(member);
+            } catch (IOException ex) {
+                bytes = null;
+            }
+            digest.update(member.getName().getBytes(StandardCharsets.UTF_8));
+            if (bytes == null) {
+                // never equal to the hash of another run
+                digest.update((member.getName() + '@' + System.identityHashCode(member) + '@' + System.nanoTime()).getBytes(StandardCharsets.UTF_8));
+            } else {
+                digest.update(bytes);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
@@ -0,0 +1,492 @@
+package matrnr.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// just enough of a class file reader to tell which parts of a class changed between two compilations: the field
+// layout, and per method a hash of its code with every constant pool index replaced by the constant it points to
+// (indices shift whenever a constant is added anywhere in the class)
+public class ClassFile {
+    private static final int CLASS = 7;
+    private static final int FIELD_REF = 9;
+    private static final int METHOD_REF = 10;
+    private static final int INTERFACE_METHOD_REF = 11;
+    private static final int NAME_AND_TYPE = 12;
+    private static final int METHOD_HANDLE = 15;
+    private static final int INVOKEDYNAMIC = 0xba;
+
+    // instruction lengths including the opcode, 0 for the variable length switches and wide
+    private static final int[] LENGTHS = new int[256];
+    // instructions with a constant pool index as their first operand
+    private static final boolean[] CONSTANT_OPERAND = new boolean[256];
+
+    static {
+        Arrays.fill(LENGTHS, 1);
+        for (int op : new int[]{0x10, 0x12, 0x15, 0x16, 0x17, 0x18, 0x19, 0x36, 0x37, 0x38, 0x39, 0x3a, 0xa9, 0xbc}) {
+            LENGTHS[op] = 2;
+        }
+        for (int op = 0x99; op <= 0xa8; op++) {
+            LENGTHS[op] = 3; // if*, goto, jsr
+        }
+        for (int op : new int[]{0x11, 0x13, 0x14, 0x84, 0xb2, 0xb3, 0xb4, 0xb5, 0xb6, 0xb7, 0xb8, 0xbb, 0xbd, 0xc0, 0xc1, 0xc6, 0xc7}) {
+            LENGTHS[op] = 3;
+        }
+        LENGTHS[0xc5] = 4; // multianewarray
+        for (int op : new int[]{0xb9, 0xba, 0xc8, 0xc9}) {
+            LENGTHS[op] = 5;
+        }
+        LENGTHS[0xaa] = 0; // tableswitch
+        LENGTHS[0xab] = 0; // lookupswitch
+        LENGTHS[0xc4] = 0; // wide
+
+        for (int op : new int[]{0x12, 0x13, 0x14, 0xb2, 0xb3, 0xb4, 0xb5, 0xb6, 0xb7, 0xb8, 0xb9, 0xba, 0xbb, 0xbd, 0xc0, 0xc1, 0xc5}) {
+            CONSTANT_OPERAND[op] = true;
+        }
+    }
+
+    public static class Member {
+        private final String owner;
+        private final String name;
+        private final String descriptor;
+
+        public Member(String owner, String name, String descriptor) {
+            this.owner = owner;
+            this.name = name;
+            this.descriptor = descriptor;
+        }
+
+        public String getOwner() {
+            return owner;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getDescriptor() {
+            return descriptor;
+        }
+
+        public String signature() {
+            return name + descriptor;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (other instanceof Member) {
+                Member otherMember = (Member) other;
+                return owner.equals(otherMember.owner) && name.equals(otherMember.name) && descriptor.equals(otherMember.descriptor);
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return (owner.hashCode() * 31 + name.hashCode()) * 31 + descriptor.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return owner + '.' + name + descriptor;
+        }
+    }
+
+    public static class MethodInfo {
+        private final String signature;
+        private final String hash;
+        private final Set<Member> calls;
+
+        private MethodInfo(String signature, String hash, Set<Member> calls) {
+            this.signature = signature;
+            this.hash = hash;
+            this.calls = calls;
+        }
+
+        public String getSignature() {
+            return signature;
+        }
+
+        // changes with the code of the method only, not with the code of the methods it calls
+        public String getHash() {
+            return hash;
+        }
+
+        // methods and constructors called by invoke instructions, and lambda bodies referenced by invokedynamic
+        public Set<Member> getCalls() {
+            return calls;
+        }
+    }
+
+    private final String name;
+    private final String superName;
+    private final String layoutHash;
+    private final Map<String, MethodInfo> methods;
+    private final Set<String> referencedClasses;
+
+    private ClassFile(String name, String superName, String layoutHash, Map<String, MethodInfo> methods, Set<String> referencedClasses) {
+        this.name = name;
+        this.superName = superName;
+        this.layoutHash = layoutHash;
+        this.methods = methods;
+        this.referencedClasses = referencedClasses;
+    }
+
+    // binary name, e.g. matrnr.Member
+    public String getName() {
+        return name;
+    }
+
+    // null for java.lang.Object
+    public String getSuperName() {
+        return superName;
+    }
+
+    // hash over access flags, super class, interfaces, fields and the signatures (not the code) of all methods
+    public String getLayoutHash() {
+        return layoutHash;
+    }
+
+    // by name and descriptor, e.g. "learn(Lmatrnr/Sports;Lmatrnr/Level;)Lmatrnr/Level;"
+    public Map<String, MethodInfo> getMethods() {
+        return methods;
+    }
+
+    // binary names of every class in the constant pool
+    public Set<String> getReferencedClasses() {
+        return referencedClasses;
+    }
+
+    private static String binaryName(String internal) {
+        return internal.replace('/', '.');
+    }
+
+    public static ClassFile parse(byte[] bytes) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        if (in.readInt() != 0xCAFEBABE) {
+            throw new IOException("Not a class file");
+        }
+        in.skipBytes(4); // minor and major version
+
+        int count = in.readUnsignedShort();
+        int[] tags = new int[count];
+        Object[] values = new Object[count];
+        int[][] refs = new int[count][];
+        for (int i = 1; i < count; i++) {
+            int tag = in.readUnsignedByte();
+            tags[i] = tag;
+            switch (tag) {
+                case 1: // Utf8, stored in the same modified UTF-8 that readUTF expects
+                    values[i] = in.readUTF();
+                    break;
+                case 3:
+                    values[i] = in.readInt();
+                    break;
+                case 4:
+                    values[i] = in.readFloat();
+                    break;
+                case 5:
+                    values[i] = in.readLong();
+                    i++; // takes up two entries
+                    break;
+                case 6:
+                    values[i] = in.readDouble();
+                    i++;
+                    break;
+                case CLASS:
+                case 8: // String
+                case 16: // MethodType
+                case 19: // Module
+                case 20: // Package
+                    refs[i] = new int[]{in.readUnsignedShort()};
+                    break;
+                case METHOD_HANDLE:
+                    refs[i] = new int[]{in.readUnsignedByte(), in.readUnsignedShort()};
+                    break;
+                case FIELD_REF:
+                case METHOD_REF:
+                case INTERFACE_METHOD_REF:
+                case NAME_AND_TYPE:
+                case 17: // Dynamic
+                case 18: // InvokeDynamic
+                    refs[i] = new int[]{in.readUnsignedShort(), in.readUnsignedShort()};
+                    break;
+                default:
+                    throw new IOException("Unknown constant pool tag " + tag);
+            }
+        }
+        ConstantPool pool = new ConstantPool(tags, values, refs);
+
+        MessageDigest layout = ClassBytes.sha256();
+        int access = in.readUnsignedShort();
+        String name = binaryName(pool.className(in.readUnsignedShort()));
+        int superIndex = in.readUnsignedShort();
+        String superName = superIndex == 0 ? null : binaryName(pool.className(superIndex));
+        update(layout, Integer.toString(access), name, String.valueOf(superName));
+        int interfaces = in.readUnsignedShort();
+        for (int i = 0; i < interfaces; i++) {
+            update(layout, pool.className(in.readUnsignedShort()));
+        }
+
+        int fields = in.readUnsignedShort();
+        for (int i = 0; i < fields; i++) {
+            int fieldAccess = in.readUnsignedShort();
+            update(layout, "field", Integer.toString(fieldAccess), pool.utf8(in.readUnsignedShort()), pool.utf8(in.readUnsignedShort()));
+            skipAttributes(in);
+        }
+
+        List<RawMethod> raw = new ArrayList<>();
+        int methodCount = in.readUnsignedShort();
+        for (int i = 0; i < methodCount; i++) {
+            int methodAccess = in.readUnsignedShort();
+            String signature = pool.utf8(in.readUnsignedShort()) + pool.utf8(in.readUnsignedShort());
+            update(layout, "method", Integer.toString(methodAccess), signature);
+            byte[] code = null;
+            byte[] exceptionTable = null;
+            int attributes = in.readUnsignedShort();
+            for (int a = 0; a < attributes; a++) {
+                String attribute = pool.utf8(in.readUnsignedShort());
+                int length = in.readInt();
+                if ("Code".equals(attribute)) {
+                    in.skipBytes(4); // max_stack and max_locals follow from the code
+                    code = new byte[in.readInt()];
+                    in.readFully(code);
+                    exceptionTable = new byte[in.readUnsignedShort() * 8];
+                    in.readFully(exceptionTable);
+                    skipAttributes(in); // line numbers and local variable names do not change the behaviour
+                } else {
+                    in.skipBytes(length);
+                }
+            }
+            raw.add(new RawMethod(methodAccess, signature, code, exceptionTable));
+        }
+
+        List<String[]> bootstrapMethods = new ArrayList<>();
+        int attributes = in.readUnsignedShort();
+        for (int a = 0; a < attributes; a++) {
+            String attribute = pool.utf8(in.readUnsignedShort());
+            int length = in.readInt();
+            if ("BootstrapMethods".equals(attribute)) {
+                int bootstraps = in.readUnsignedShort();
+                for (int b = 0; b < bootstraps; b++) {
+                    int handle = in.readUnsignedShort();
+                    int arguments = in.readUnsignedShort();
+                    String[] bootstrap = new String[arguments + 1];
+                    bootstrap[0] = Integer.toString(handle);
+                    for (int arg = 0; arg < arguments; arg++) {
+                        bootstrap[arg + 1] = Integer.toString(in.readUnsignedShort());
+                    }
+                    bootstrapMethods.add(bootstrap);
+                }
+            } else {
+                in.skipBytes(length);
+            }
+        }
+
+        Map<String, MethodInfo> methods = new LinkedHashMap<>();
+        for (RawMethod m : raw) {
+            methods.put(m.signature, m.normalize(pool, bootstrapMethods));
+        }
+
+        Set<String> referencedClasses = new LinkedHashSet<>();
+        for (int i = 1; i < count; i++) {
+            if (tags[i] == CLASS) {
+                String referenced = pool.className(i);
+                // array classes are referenced by their descriptor, e.g. [Lmatrnr/Member;
+                int element = referenced.lastIndexOf('[');
+                if (element >= 0) {
+                    referenced = referenced.endsWith(";") ? referenced.substring(element + 2, referenced.length() - 1) : "";
+                }
+                if (!referenced.isEmpty()) {
+                    referencedClasses.add(binaryName(referenced));
+                }
+            }
+        }
+
+        return new ClassFile(
+            name,
+            superName,
+            HexFormat.of().formatHex(layout.digest()),
+            Collections.unmodifiableMap(methods),
+            Collections.unmodifiableSet(referencedClasses)
+        );
+    }
+
+    private static void skipAttributes(DataInputStream in) throws IOException {
+        int attributes = in.readUnsignedShort();
+        for (int a = 0; a < attributes; a++) {
+            in.skipBytes(2);
+            in.skipBytes(in.readInt());
+        }
+    }
+
+    private static void update(MessageDigest digest, String... values) {
+        for (String value : values) {
+            digest.update(value.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+    }
+
+    private static class ConstantPool {
+        private final int[] tags;
+        private final Object[] values;
+        private final int[][] refs;
+
+        private ConstantPool(int[] tags, Object[] values, int[][] refs) {
+            this.tags = tags;
+            this.values = values;
+            this.refs = refs;
+        }
+
+        private String utf8(int index) {
+            return (String) values[index];
+        }
+
+        private String className(int index) {
+            return utf8(refs[index][0]);
+        }
+
+        private Member member(int index) {
+            int[] nameAndType = refs[refs[index][1]];
+            return new Member(binaryName(className(refs[index][0])), utf8(nameAndType[0]), utf8(nameAndType[1]));
+        }
+
+        private boolean isMethod(int index) {
+            return tags[index] == METHOD_REF || tags[index] == INTERFACE_METHOD_REF;
+        }
+
+        // the constant an index points to, independent of where in the pool it is stored
+        private String resolve(int index) {
+            int tag = tags[index];
+            switch (tag) {
+                case 1:
+                case 3:
+                case 4:
+                case 5:
+                case 6:
+                    return tag + ":" + values[index];
+                case FIELD_REF:
+                case METHOD_REF:
+                case INTERFACE_METHOD_REF:
+                    return tag + ":" + member(index);
+                case NAME_AND_TYPE:
+                    return tag + ":" + utf8(refs[index][0]) + utf8(refs[index][1]);
+                case METHOD_HANDLE:
+                    return tag + ":" + refs[index][0] + ':' + resolve(refs[index][1]);
+                case 17:
+                case 18:
+                    // the bootstrap method is resolved separately, its index is stable as long as the code is
+                    return tag + ":" + refs[index][0] + ':' + resolve(refs[index][1]);
+                default:
+                    return tag + ":" + resolve(refs[index][0]);
+            }
+        }
+    }
+
+    private static class RawMethod {
+        private final int access;
+        private final String signature;
+        private final byte[] code;
+        private final byte[] exceptionTable;
+
+        private RawMethod(int access, String signature, byte[] code, byte[] exceptionTable) {
+            this.access = access;
+            this.signature = signature;
+            this.code = code;
+            this.exceptionTable = exceptionTable;
+        }
+
+        private MethodInfo normalize(ConstantPool pool, List<String[]> bootstrapMethods) throws IOException {
+            MessageDigest digest = ClassBytes.sha256();
+            update(digest, Integer.toString(access), signature);
+            Set<Member> calls = new LinkedHashSet<>();
+            if (code == null) {
+                // abstract or native
+                return new MethodInfo(signature, HexFormat.of().formatHex(digest.digest()), calls);
+            }
+
+            int pc = 0;
+            while (pc < code.length) {
+                int op = code[pc] & 0xff;
+                int length = length(op, pc);
+                if (CONSTANT_OPERAND[op]) {
+                    int index = op == 0x12 ? code[pc + 1] & 0xff : u2(pc + 1);
+                    // ldc and ldc_w only differ in the width of the index
+                    digest.update((byte) (op == 0x12 ? 0x13 : op));
+                    update(digest, pool.resolve(index));
+                    if (op >= 0xb6 && op <= 0xb9 && pool.isMethod(index)) {
+                        calls.add(pool.member(index));
+                    } else if (op == INVOKEDYNAMIC) {
+                        bootstrap(pool, bootstrapMethods, pool.refs[index][0], digest, calls);
+                    }
+                    // remaining operands, e.g. the dimensions of multianewarray
+                    digest.update(code, pc + (op == 0x12 ? 2 : 3), length - (op == 0x12 ? 2 : 3));
+                } else {
+                    digest.update(code, pc, length);
+                }
+                pc += length;
+            }
+
+            for (int e = 0; e < exceptionTable.length; e += 8) {
+                digest.update(exceptionTable, e, 6);
+                int catchType = ((exceptionTable[e + 6] & 0xff) << 8) | (exceptionTable[e + 7] & 0xff);
+                update(digest, catchType == 0 ? "any" : pool.resolve(catchType));
+            }
+            return new MethodInfo(signature, HexFormat.of().formatHex(digest.digest()), calls);
+        }
+
+        private static void bootstrap(ConstantPool pool, List<String[]> bootstrapMethods, int index, MessageDigest digest, Set<Member> calls) {
+            String[] bootstrap = bootstrapMethods.get(index);
+            for (String argument : bootstrap) {
+                int arg = Integer.parseInt(argument);
+                update(digest, pool.resolve(arg));
+                // lambda bodies and method references
+                if (pool.tags[arg] == METHOD_HANDLE && pool.isMethod(pool.refs[arg][1])) {
+                    calls.add(pool.member(pool.refs[arg][1]));
+                }
+            }
+        }
+
+        private int u2(int at) {
+            return ((code[at] & 0xff) << 8) | (code[at + 1] & 0xff);
+        }
+
+        private int s4(int at) {
+            return ((code[at] & 0xff) << 24) | ((code[at + 1] & 0xff) << 16) | ((code[at + 2] & 0xff) << 8) | (code[at + 3] & 0xff);
+        }
+
+        private int length(int op, int pc) throws IOException {
+            if (LENGTHS[op] != 0) {
+                return LENGTHS[op];
+            }
+            if (op == 0xc4) {
+                // wide iinc has two wide operands, every other wide instruction one
+                return (code[pc + 1] & 0xff) == 0x84 ? 6 : 4;
+            }
+            int operands = (pc + 4) & ~3; // aligned to 4 bytes from the start of the code
+            if (op == 0xaa) {
+                int low = s4(operands + 4);
+                int high = s4(operands + 8);
+                return operands - pc + 12 + (high - low + 1) * 4;
+            } else if (op == 0xab) {
+                int pairs = s4(operands + 4);
+                return operands - pc + 8 + pairs * 8;
+            }
+            throw new IOException("Unknown instruction " + op);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package matrnr.utils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class ClassMetadata {
+    private static final NullChecker C = new NullChecker(new IllegalArgumentException("ClassMetadata cannot work with null values"));
+
+    // a ClassValue lives exactly as long as the class (and therefore its class loader) it is attached to
+    private static final ClassValue<ClassMetadata> INDEX = new ClassValue<>() {
+        @Override
+        protected ClassMetadata computeValue(Class<?> type) {
+            return new ClassMetadata(type);
+        }
+    };
+
+    public static class Profile {
+        private final Class<?>[] parameterTypes;
+        private final boolean referenceParameter;
+
+        private Profile(Executable exec) {
+            parameterTypes = exec.getParameterTypes();
+            referenceParameter = Arrays.stream(parameterTypes).anyMatch(t -> !t.isPrimitive());
+        }
+
+        public int parameterCount() {
+            return parameterTypes.length;
+        }
+
+        public Class<?> parameterType(int index) {
+            return parameterTypes[index];
+        }
+
+        public boolean hasReferenceParameter() {
+            return referenceParameter;
+        }
+    }
+
+    private final Class<?> type;
+    private final Map<String, List<Method>> declaredByName;
+    private final Map<String, List<Method>> inTreeByName;
+    private final Set<Method> publicMethods;
+    private final Set<Constructor<?>> publicConstructors;
+    private final Map<Executable, Profile> profiles = new HashMap<>();
+    private final Map<Executable, MethodHandle> handles = new ConcurrentHashMap<>();
+
+    private ClassMetadata(Class<?> cls) {
+        type = cls;
+        Method[] declared = cls.getDeclaredMethods();
+        Constructor<?>[] constructors = cls.getDeclaredConstructors();
+
+        declaredByName = groupByName(declared);
+        inTreeByName = groupByName(cls.getMethods());
+
+        Set<Method> methods = new HashSet<>();
+        for (Method m : declared) {
+            profiles.put(m, new Profile(m));
+            if (Modifier.isPublic(m.getModifiers())) {
+                methods.add(m);
+            }
+        }
+        publicMethods = Collections.unmodifiableSet(methods);
+
+        Set<Constructor<?>> ctors = new HashSet<>();
+        for (Constructor<?> c : constructors) {
+            profiles.put(c, new Profile(c));
+            if (Modifier.isPublic(c.getModifiers())) {
+                ctors.add(c);
+            }
+        }
+        publicConstructors = Collections.unmodifiableSet(ctors);
+    }
+
+    public static ClassMetadata of(Class<?> cls) {
+        return INDEX.get(C.check(cls));
+    }
+
+    private static Map<String, List<Method>> groupByName(Method[] methods) {
+        Map<String, List<Method>> byName = new HashMap<>();
+        for (Method m : methods) {
+            byName.computeIfAbsent(m.getName(), name -> new ArrayList<>(1)).add(m);
+        }
+        byName.replaceAll((name, list) -> Collections.unmodifiableList(list));
+        return byName;
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    public List<Method> declaredMethods(String name) {
+        return declaredByName.getOrDefault(C.check(name), List.of());
+    }
+
+    public List<Method> methodsInTree(String name) {
+        return inTreeByName.getOrDefault(C.check(name), List.of());
+    }
+
+    public Set<Method> publicMethods() {
+        return publicMethods;
+    }
+
+    public Set<Constructor<?>> publicConstructors() {
+        return publicConstructors;
+    }
+
+    // profiles are only kept for the executables declared by this class
+    public Profile profile(Executable exec) {
+        Profile p = profiles.get(C.check(exec));
+        if (p == null) {
+            throw new IllegalArgumentException("'" + exec + "' is not declared by " + type.getName());
+        }
+        return p;
+    }
+
+    // (Object[])Object for constructors and static methods, (Object, Object[])Object for instance methods
+    public MethodHandle handle(Executable exec) throws IllegalAccessException {
+        MethodHandle handle = handles.get(C.check(exec));
+        if (handle == null) {
+            handle = spread(exec, profile(exec).parameterCount());
+            MethodHandle raced = handles.putIfAbsent(exec, handle);
+            if (raced != null) {
+                handle = raced;
+            }
+        }
+        return handle;
+    }
+
+    private static MethodHandle spread(Executable exec, int parameterCount) throws IllegalAccessException {
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        if (exec instanceof Constructor<?>) {
+            return lookup.unreflectConstructor((Constructor<?>) exec)
+                .asSpreader(Object[].class, parameterCount)
+                .asType(MethodType.methodType(Object.class, Object[].class));
+        }
+
+        Method m = (Method) exec;
+        MethodHandle direct = lookup.unreflect(m).asSpreader(Object[].class, parameterCount);
+        if (Modifier.isStatic(m.getModifiers())) {
+            return direct.asType(MethodType.methodType(Object.class, Object[].class));
+        }
+        return direct.asType(MethodType.methodType(Object.class, Object.class, Object[].class));
+    }
+}
@@ -32,8 +32,6 @@ public class DefaultObjects {
         mappings.put(char.class, '\0');
         mappings.put(String.class, "testing");
         mappings.put(BigDecimal.class, BigDecimal.ZERO);
-        mappings.put(Map.class, new HashMap<>());
-        mappings.put(List.class, new ArrayList<>());
         mappings.put(Level.class, Level.BEGINNER);
         mappings.put(Sports.class, Sports.ARCHERY);
     }
@@ -64,10 +62,15 @@ public class DefaultObjects {
             return new Trainer(t.getName(), t.getAccreditations());
         } else if (SportsClub.class.equals(cls)) {
             SportsClub cpy = new SportsClub(sc.getName(), sc.getFeePerSports());
+            // tests running in parallel must not share members a submission may change
             for (Member m : sc.getMembers()) {
-                cpy.addMember(m);
+                cpy.addMember((Member) get(m.getClass()));
             }
             return cpy;
+        } else if (Map.class.equals(cls)) {
+            return new HashMap<>();
+        } else if (List.class.equals(cls)) {
+            return new ArrayList<>();
         } else {
             return mappings.get(cls);
         }
@@ -0,0 +1,13 @@
+package matrnr.utils;
+
+import java.lang.reflect.InvocationTargetException;
+
+@FunctionalInterface
+public interface Invoker extends Invokable {
+    Object call(Object[] args) throws IllegalAccessException, IllegalArgumentException, InvocationTargetException, InstantiationException;
+
+    @Override
+    default void invoke(Object[] args) throws IllegalAccessException, IllegalArgumentException, InvocationTargetException, InstantiationException {
+        call(args);
+    }
+}
@@ -0,0 +1,92 @@
+package matrnr.utils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.Supplier;
+
+public class Invokers {
+    private static final NullChecker C = new NullChecker(new IllegalArgumentException("Invokers cannot work with null values"));
+    private static final Object[] NO_ARGS = new Object[0];
+
+    private Invokers() {
+    }
+
+    // argument problems are reported before the handle is entered, so that everything thrown by the handle itself can be
+    // attributed to the target, like Method.invoke() does
+    private static Object[] checkArguments(Class<?>[] parameters, Object[] args) {
+        Object[] actual = args == null ? NO_ARGS : args;
+        if (actual.length != parameters.length) {
+            throw new IllegalArgumentException(
+                "wrong number of arguments: " + actual.length + " expected: " + parameters.length
+            );
+        }
+        for (int i = 0; i < actual.length; i++) {
+            if (actual[i] == null ? parameters[i].isPrimitive() : !boxed(parameters[i]).isInstance(actual[i])) {
+                // unlike Method.invoke(), primitives are not widened, e.g. an Integer for a long parameter is rejected
+                throw new IllegalArgumentException("argument type mismatch: argument " + i + " is "
+                    + (actual[i] == null ? "null" : actual[i].getClass().getName()) + ", expected: " + parameters[i].getName());
+            }
+        }
+        return actual;
+    }
+
+    private static Class<?> boxed(Class<?> type) {
+        return type.isPrimitive() ? MethodType.methodType(type).wrap().returnType() : type;
+    }
+
+    // behaves like Constructor.newInstance(): exceptions thrown by the constructor are wrapped in an InvocationTargetException
+    public static Invoker forConstructor(Constructor<?> ctor) {
+        C.check(ctor);
+        ClassMetadata meta = ClassMetadata.of(ctor.getDeclaringClass());
+        boolean abstractClass = Modifier.isAbstract(ctor.getDeclaringClass().getModifiers());
+        Class<?>[] parameters = ctor.getParameterTypes();
+        return args -> {
+            if (abstractClass) {
+                throw new InstantiationException(ctor.getDeclaringClass().getName() + " is abstract");
+            }
+            Object[] actual = checkArguments(parameters, args);
+            MethodHandle handle = meta.handle(ctor);
+            try {
+                return (Object) handle.invokeExact(actual);
+            } catch (Throwable t) {
+                throw new InvocationTargetException(t);
+            }
+        };
+    }
+
+    // behaves like Method.invoke(): the receiver is fetched anew for every call, and is ignored for static methods
+    public static Invoker forMethod(Method method, Supplier<Object> receiver) {
+        C.check(method);
+        C.check(receiver);
+        ClassMetadata meta = ClassMetadata.of(method.getDeclaringClass());
+        Class<?>[] parameters = method.getParameterTypes();
+        if (Modifier.isStatic(method.getModifiers())) {
+            return args -> {
+                Object[] actual = checkArguments(parameters, args);
+                MethodHandle handle = meta.handle(method);
+                try {
+                    return (Object) handle.invokeExact(actual);
+                } catch (Throwable t) {
+                    throw new InvocationTargetException(t);
+                }
+            };
+        }
+        return args -> {
+            Object[] actual = checkArguments(parameters, args);
+            MethodHandle handle = meta.handle(method);
+            Object target = receiver.get();
+            if (!method.getDeclaringClass().isInstance(target)) {
+                throw new IllegalArgumentException("object is not an instance of declaring class " + method.getDeclaringClass().getName());
+            }
+            try {
+                return (Object) handle.invokeExact(target, actual);
+            } catch (Throwable t) {
+                throw new InvocationTargetException(t);
+            }
+        };
+    }
+}
@@ -1,12 +1,10 @@
 package matrnr.utils;
 
 import java.lang.reflect.Method;
-import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.function.BiFunction;
-import java.util.function.Function;
 
 public class Methods {
     private static final NullChecker C = new NullChecker(new IllegalArgumentException("Methods class cannot work with null values"));
@@ -14,16 +12,10 @@ public class Methods {
     private Methods() {
     }
 
-    private static Method[] getAllInternal(Class<?> cls, String name, Function<Class<?>, Method[]> methodSupplier) {
+    private static Method[] getAllInternal(Class<?> cls, String name, BiFunction<ClassMetadata, String, List<Method>> lookup) {
         C.check(cls);
         C.check(name);
-        List<Method> results = new ArrayList<>();
-        for (Method m : methodSupplier.apply(cls)) {
-            if (name.equals(m.getName())) {
-                results.add(m);
-            }
-        }
-        return results.toArray(new Method[0]);
+        return lookup.apply(ClassMetadata.of(cls), name).toArray(new Method[0]);
     }
 
     private static Method getAssertInternal(Class<?> cls, String name, BiFunction<Class<?>, String, Method[]> methodSupplier) {
@@ -49,11 +41,11 @@ public class Methods {
     }
 
     public static Method[] getAll(Class<?> cls, String name) {
-        return getAllInternal(cls, name, Class::getDeclaredMethods);
+        return getAllInternal(cls, name, ClassMetadata::declaredMethods);
     }
 
     public static Method[] getAllInTree(Class<?> cls, String name) {
-        return getAllInternal(cls, name, Class::getMethods);
+        return getAllInternal(cls, name, ClassMetadata::methodsInTree);
     }
 
     public static Method get(Class<?> cls, String name) {
@@ -50,4 +50,18 @@ public class TablePrinter {
     public TablePrinter printTableRow(int padTo, String... rowItems) {
         return printTableRow(padTo, ' ', rowItems);
     }
+
+    // every column gets its own width, the last one is not padded
+    public TablePrinter printTableRow(int[] padTo, String... rowItems) {
+        for (int i = 0; i < rowItems.length; i++) {
+            out.print(rowItems[i]);
+            if (i != rowItems.length - 1) {
+                for (int j = rowItems[i].length(); j <= padTo[i]; j++) {
+                    out.print(' ');
+                }
+            }
+        }
+        out.print('\n');
+        return this;
+    }
 }